@@ -0,0 +1,74 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import io.hahn_software.emrs.dtos.TaskRequestDto;
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+
+
+
+/***
+ *
+ * Deterministic fixtures shared by the benchmarks , shaped like real tenant data
+ */
+final class BenchmarkData {
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private static final Instant BASE_DATE = Instant.parse("2025-01-01T00:00:00Z");
+
+
+    private BenchmarkData() {}
+
+
+
+    static List<TaskRequestDto> requests(int size) {
+
+        List<TaskRequestDto> requests = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            requests.add(TaskRequestDto.builder()
+                .name("Task " + i)
+                .status(STATUSES[i % STATUSES.length])
+                .priority(PRIORITIES[i % PRIORITIES.length])
+                .description("Description of task " + i + " , follow up with the customer and update the ticket")
+                .estimateDate(BASE_DATE.plusSeconds(i * 3600L).toEpochMilli())
+                .assignToUserId(new UUID(0L, i % 25))
+                .userName("user-" + (i % 25))
+                .build());
+        }
+
+        return requests;
+    }
+
+
+
+    static List<Task> tasks(int size) {
+
+        List<Task> tasks = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            tasks.add(Task.builder()
+                .id(1000L + i)
+                .name("Task " + i)
+                .status(STATUSES[i % STATUSES.length])
+                .priority(PRIORITIES[i % PRIORITIES.length])
+                .description("Description of task " + i + " , follow up with the customer and update the ticket")
+                .estimateDate(BASE_DATE.plusSeconds(i * 3600L))
+                .assignToUserId(new UUID(0L, i % 25))
+                .userName("user-" + (i % 25))
+                .createdAt(BASE_DATE)
+                .updatedAt(BASE_DATE.plusSeconds(i))
+                .build());
+        }
+
+        return tasks;
+    }
+}
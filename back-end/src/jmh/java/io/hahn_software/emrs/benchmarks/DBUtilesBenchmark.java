@@ -0,0 +1,92 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.utils.DBUtiles;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+
+
+/***
+ *
+ * Measures the work done on our side for a dynamic update (reflection , JPQL building , parameter binding) ,
+ * the EntityManager is a no-op stand-in so no database or Hibernate parsing is involved
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DBUtilesBenchmark {
+
+
+    @Param({"1", "200", "10000"})
+    private int size;
+
+    private List<Task> patches;
+
+    private EntityManager entityManager;
+
+
+    @Setup
+    public void setup() {
+
+        patches = BenchmarkData.tasks(size).stream()
+                    .map(task -> Task.builder()
+                        .status(task.getStatus())
+                        .priority(task.getPriority())
+                        .description(task.getDescription())
+                        .build())
+                    .toList();
+
+        Query query = (Query) Proxy.newProxyInstance(
+            Query.class.getClassLoader(),
+            new Class<?>[] { Query.class },
+            (proxy, method, args) -> proxy
+        );
+
+        entityManager = (EntityManager) Proxy.newProxyInstance(
+            EntityManager.class.getClassLoader(),
+            new Class<?>[] { EntityManager.class },
+            (proxy, method, args) -> "createQuery".equals(method.getName()) ? query : null
+        );
+    }
+
+
+
+    @Benchmark
+    public void convertToMap(Blackhole blackhole) {
+        for (Task patch : patches) {
+            Map<String, Object> fields = DBUtiles.convertToMap(patch);
+            blackhole.consume(fields);
+        }
+    }
+
+
+
+    @Benchmark
+    public void buildJPQLQueryDynamicallyForUpdate(Blackhole blackhole) {
+        for (Task patch : patches) {
+            blackhole.consume(DBUtiles.buildJPQLQueryDynamicallyForUpdate(patch, entityManager));
+        }
+    }
+}
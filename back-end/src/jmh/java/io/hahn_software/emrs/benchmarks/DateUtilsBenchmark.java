@@ -0,0 +1,69 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.hahn_software.emrs.utils.DateUtils;
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+
+    @Param({"1", "200", "10000"})
+    private int size;
+
+    private Instant[] instants;
+
+    private Long[] timestamps;
+
+
+    @Setup
+    public void setup() {
+
+        instants = new Instant[size];
+        timestamps = new Long[size];
+
+        for (int i = 0; i < size; i++) {
+            instants[i] = Instant.ofEpochSecond(1_735_689_600L + i * 3600L);
+            timestamps[i] = instants[i].toEpochMilli();
+        }
+    }
+
+
+
+    @Benchmark
+    public void instantToLong(Blackhole blackhole) {
+        for (Instant instant : instants) {
+            blackhole.consume(DateUtils.instantToLong(instant));
+        }
+    }
+
+
+
+    @Benchmark
+    public void longToInstant(Blackhole blackhole) {
+        for (Long timestamp : timestamps) {
+            blackhole.consume(DateUtils.longToInstant(timestamp));
+        }
+    }
+}
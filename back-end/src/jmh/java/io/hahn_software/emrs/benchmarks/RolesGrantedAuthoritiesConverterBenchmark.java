@@ -0,0 +1,92 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+import io.hahn_software.emrs.security.JwtConverter;
+import io.hahn_software.emrs.security.RolesGrantedAuthoritiesConverter;
+
+
+
+/***
+ *
+ * One conversion per request , size is the number of requests (tokens) converted per invocation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RolesGrantedAuthoritiesConverterBenchmark {
+
+
+    @Param({"1", "200", "10000"})
+    private int size;
+
+    private final RolesGrantedAuthoritiesConverter converter = new RolesGrantedAuthoritiesConverter()
+                                                                    .setAuthorityPrefix(JwtConverter.AUTHORITY_PREFIX);
+
+    private List<Jwt> tokens;
+
+
+    @Setup
+    public void setup() {
+
+        tokens = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            tokens.add(Jwt.withTokenValue("token-" + i)
+                .header("alg", "RS256")
+                .subject(new UUID(1L, i).toString())
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .claim("preferred_username", "user-" + i)
+                .claim("realm_access", Map.of(
+                    "roles", List.of("ADMIN", "offline_access", "uma_authorization", "default-roles-tasky")
+                ))
+                .claim("organization", Map.of(
+                    "tasky", Map.of("id", new UUID(2L, i % 10).toString())
+                ))
+                .build());
+        }
+    }
+
+
+
+    @TearDown
+    public void tearDown() {
+        // the converter sets the tenant of the calling thread
+        TenantContext.clear();
+    }
+
+
+
+    @Benchmark
+    public void convert(Blackhole blackhole) {
+        for (Jwt token : tokens) {
+            blackhole.consume(converter.convert(token));
+        }
+    }
+}
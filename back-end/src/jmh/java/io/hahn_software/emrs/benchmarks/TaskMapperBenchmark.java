@@ -0,0 +1,63 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.hahn_software.emrs.dtos.TaskRequestDto;
+import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.mappers.TaskMapper;
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+
+    @Param({"1", "200", "10000"})
+    private int size;
+
+    private final TaskMapper taskMapper = new TaskMapper();
+
+    private List<TaskRequestDto> requests;
+
+    private List<Task> tasks;
+
+
+    @Setup
+    public void setup() {
+        requests = BenchmarkData.requests(size);
+        tasks = BenchmarkData.tasks(size);
+    }
+
+
+
+    @Benchmark
+    public List<Task> toTaskList() {
+        return taskMapper.toTaskList(requests);
+    }
+
+
+
+    @Benchmark
+    public List<TaskResponseDto> toTaskResponseDtoList() {
+        return taskMapper.toTaskResponseDtoList(tasks);
+    }
+}
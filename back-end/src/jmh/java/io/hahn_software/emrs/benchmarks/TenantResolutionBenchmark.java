@@ -0,0 +1,79 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.RequestTenant;
+
+
+
+/***
+ *
+ * One tenant resolution , as done by Hibernate for every session and statement of a request.
+ * parsed is the previous resolver (parse the TenantContext string on every call) , resolver the current one.
+ * tenant : a UUID organization id , or an opaque one (name based UUID , MD5 per call before)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantResolutionBenchmark {
+
+
+    @Param({"uuid", "opaque"})
+    private String tenant;
+
+    private final CurrentTenantIdentifierResolverImpl resolver = new CurrentTenantIdentifierResolverImpl();
+
+
+    @Setup
+    public void setup() {
+        RequestTenant.set("uuid".equals(tenant) ? new UUID(2L, 7L).toString() : "org-tasky-7");
+    }
+
+
+
+    @TearDown
+    public void tearDown() {
+        RequestTenant.clear();
+    }
+
+
+
+    @Benchmark
+    public UUID parsed() {
+
+        String tenantIdStr = TenantContext.getTenantId();
+
+        try {
+            return UUID.fromString(tenantIdStr);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(tenantIdStr.getBytes());
+        }
+    }
+
+
+
+    @Benchmark
+    public UUID resolver() {
+        return resolver.resolveCurrentTenantIdentifier();
+    }
+}
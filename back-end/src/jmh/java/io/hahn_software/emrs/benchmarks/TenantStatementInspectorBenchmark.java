@@ -0,0 +1,77 @@
+package io.hahn_software.emrs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.hahn_software.emrs.utils.TenantStatementInspector;
+
+
+
+/***
+ *
+ * Hibernate sends the same few statement strings over and over , the workload cycles through them
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TenantStatementInspectorBenchmark {
+
+
+    private static final String[] STATEMENTS = {
+        "select t1_0.id,t1_0.tenant_id,t1_0.assign_to_user_id,t1_0.created_at,t1_0.description,t1_0.estimate_date,"
+            + "t1_0.name,t1_0.priority,t1_0.status,t1_0.updated_at,t1_0.user_name from tasks t1_0 "
+            + "where t1_0.tenant_id = ? order by t1_0.id offset ? rows fetch first ? rows only",
+        "select count(t1_0.id) from tasks t1_0 where t1_0.tenant_id = ?",
+        "insert into tasks (assign_to_user_id,created_at,description,estimate_date,name,priority,status,tenant_id,"
+            + "updated_at,user_name,id) values (?,?,?,?,?,?,?,?,?,?,?)",
+        "select nextval('tasks_id_seq')",
+        "update tasks set status=?,updated_at=? where tenant_id = ? and id in (?,?,?,?,?,?,?,?,?,?)",
+        "delete from tasks where tenant_id = ? and id in (?,?,?)"
+    };
+
+
+    @Param({"1", "200", "10000"})
+    private int size;
+
+    private final TenantStatementInspector inspector = new TenantStatementInspector();
+
+    private List<String> workload;
+
+
+    @Setup
+    public void setup() {
+
+        workload = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            // copies , like the fresh strings a statement cache miss would hand over
+            workload.add(new String(STATEMENTS[i % STATEMENTS.length]));
+        }
+    }
+
+
+
+    @Benchmark
+    public void inspect(Blackhole blackhole) {
+        for (String sql : workload) {
+            blackhole.consume(inspector.inspect(sql));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package io.hahn_software.emrs.aspectj;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+
+
+/***
+ *
+ * Times every public repository and TaskService method :
+ *
+ *   tasks.repository / tasks.service{class, operation, outcome, tenant.bucket}
+ *   tasks.repository.batch.size{class, operation}   elements passed to a method taking a collection first
+ *   tasks.repository.rows{class, operation}         rows written (int result) or returned (collection result)
+ *
+ * Percentiles and histograms are configured with management.metrics.distribution.* .
+ * tenant.bucket spreads tenants over metrics.tenant-buckets stable buckets (hash of the tenant id) ,
+ * enough to spot a noisy tenant without one time series per tenant. 0 (default) disables it.
+ */
+@Aspect
+@Component
+public class PersistenceMetricsAspect {
+
+
+    private static final String NO_BUCKET = "none";
+
+
+    private record MeterKey(String name, String className, String operation, String outcome, String tenantBucket) {}
+
+
+    private final MeterRegistry meterRegistry;
+
+    private final int tenantBuckets;
+
+    private final Map<MeterKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<MeterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+
+
+    @Autowired
+    PersistenceMetricsAspect(
+        MeterRegistry meterRegistry,
+        @Value("${metrics.tenant-buckets:0}") int tenantBuckets
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.tenantBuckets = tenantBuckets;
+    }
+
+
+
+    @Around("execution(public * io.hahn_software.emrs.dao.repositories..*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String operation = joinPoint.getSignature().getName();
+
+        Object[] args = joinPoint.getArgs();
+
+        if (args.length > 0 && args[0] instanceof Collection<?> batch) {
+            summary("tasks.repository.batch.size", className, operation).record(batch.size());
+        }
+
+        Object result = time("tasks.repository", className, operation, joinPoint);
+
+        if (result instanceof Integer rows) {
+            summary("tasks.repository.rows", className, operation).record(rows);
+        } else if (result instanceof Collection<?> rows) {
+            summary("tasks.repository.rows", className, operation).record(rows.size());
+        }
+
+        return result;
+    }
+
+
+
+    @Around("execution(public * io.hahn_software.emrs.services.TaskService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        return time(
+            "tasks.service",
+            joinPoint.getSignature().getDeclaringType().getSimpleName(),
+            joinPoint.getSignature().getName(),
+            joinPoint
+        );
+    }
+
+
+
+    private Object time(String name, String className, String operation, ProceedingJoinPoint joinPoint) throws Throwable {
+
+        long start = System.nanoTime();
+        String outcome = "error";
+
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(name, className, operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+
+
+    private Timer timer(String name, String className, String operation, String outcome) {
+
+        // meters are cached , the registry lookup (and its tag allocations) is done once per combination
+        return timers.computeIfAbsent(
+            new MeterKey(name, className, operation, outcome, tenantBucket()),
+            key -> Timer.builder(key.name())
+                    .tag("class", key.className())
+                    .tag("operation", key.operation())
+                    .tag("outcome", key.outcome())
+                    .tag("tenant.bucket", key.tenantBucket())
+                    .register(meterRegistry)
+        );
+    }
+
+
+
+    private DistributionSummary summary(String name, String className, String operation) {
+
+        return summaries.computeIfAbsent(
+            new MeterKey(name, className, operation, null, null),
+            key -> DistributionSummary.builder(key.name())
+                    .tag("class", key.className())
+                    .tag("operation", key.operation())
+                    .register(meterRegistry)
+        );
+    }
+
+
+
+    private String tenantBucket() {
+
+        String tenantId = TenantContext.getTenantId();
+
+        if (tenantBuckets <= 0 || tenantId == null) {
+            return NO_BUCKET;
+        }
+
+        return Integer.toString(Math.floorMod(tenantId.hashCode(), tenantBuckets));
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -16,12 +17,17 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import io.hahn_software.emrs.annotations.LogUserOperation;
-import io.hahn_software.emrs.dao.repositories.UserLogRepo;
 import io.hahn_software.emrs.entities.UserLog;
+import io.hahn_software.emrs.services.UserLogWriter;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.servlet.http.HttpServletRequest;
@@ -32,13 +38,26 @@ import jakarta.servlet.http.HttpServletRequest;
 @Component
 public class UserOperationLoggerAspect {
 
-    private UserLogRepo userLogRepository;
+    private UserLogWriter userLogWriter;
+
+    private CurrentTenantIdentifierResolverImpl tenantResolver;
+
+    /**
+     * time spent in the aspect itself , around the audited operation (not including it)
+     */
+    private Timer overheadTimer;
 
     @Autowired
     UserOperationLoggerAspect(
-        UserLogRepo userLogRepository
+        UserLogWriter userLogWriter,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        MeterRegistry meterRegistry
     ) {
-        this.userLogRepository = userLogRepository;
+        this.userLogWriter = userLogWriter;
+        this.tenantResolver = tenantResolver;
+        this.overheadTimer = Timer.builder("audit.aspect.overhead")
+                                .description("Time spent auditing a @LogUserOperation call , the call excluded")
+                                .register(meterRegistry);
     }
 
     
@@ -47,6 +66,9 @@ public class UserOperationLoggerAspect {
 
 		log.debug("Hello 🔖") ;
 
+        long startedAtNanos = System.nanoTime();
+        long operationNanos = 0;
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
 
@@ -79,48 +101,91 @@ public class UserOperationLoggerAspect {
 
 
         /**
-         *  Get the IP address of the user
+         *  Get the IP address of the user , there is none when the operation runs outside of a request
          */
-        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
-        String ipAddress = request.getRemoteAddr();
+        String ipAddress = null;
+
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            ipAddress = request.getRemoteAddr();
+        }
 
 
         log.info("Ip Address : {}" , ipAddress);
 
 
+        Instant startedAt = Instant.now();
+
         UserLog userLog = UserLog.builder()
         .userId(userId)
         .username(username)
         .operation(operationDescription)
         .method(signature.getMethod().getName())
         .ipAddress(ipAddress)
-        .status("STARTED") // Initial status
+        .createdAt(startedAt)
         .build();
 
-        userLogRepository.save(userLog);
+        userLog.setTenantId(tenantResolver.resolveCurrentTenantIdentifier());
 
 
+        /**
+         * Only the final status row is written , asynchronously and outside of the caller's transaction ,
+         * once that transaction has completed (see publishOnCompletion)
+         */
+        long operationStartedAt = System.nanoTime();
+
         try {
             // Proceed with the method execution
             Object result = joinPoint.proceed();
 
-            // Update the log entry for successful completion
             userLog.setStatus("SUCCESS");
-            userLog.setUpdatedAt(Instant.now());
-            userLogRepository.update(userLog); // Update the log
-
 
             return result;
             
-        } catch (Exception e) {
+        } catch (Throwable e) {
 
-            // Update the log entry for failure
             userLog.setStatus("FAILURE");
-            userLog.setUpdatedAt(Instant.now());
-            userLogRepository.update(userLog); // Update the log
 
             throw e;
+
+        } finally {
+
+            operationNanos = System.nanoTime() - operationStartedAt;
+
+            publishOnCompletion(userLog);
+
+            overheadTimer.record(System.nanoTime() - startedAtNanos - operationNanos, TimeUnit.NANOSECONDS);
         }
 
     }
+
+
+
+    /***
+     *
+     * Enqueues the row right away outside of a transaction , otherwise once the transaction completes :
+     * an operation that returned but whose transaction did not commit is logged ROLLED_BACK , not SUCCESS.
+     * The completion callback still runs with the transaction's connection bound , so it never waits on the queue
+     */
+    private void publishOnCompletion(UserLog userLog) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userLog.setUpdatedAt(Instant.now());
+            userLogWriter.publish(userLog);
+            return ;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+
+                if (status != STATUS_COMMITTED && "SUCCESS".equals(userLog.getStatus())) {
+                    userLog.setStatus(status == STATUS_ROLLED_BACK ? "ROLLED_BACK" : "UNKNOWN");
+                }
+
+                userLog.setUpdatedAt(Instant.now());
+                userLogWriter.publishWithoutBlocking(userLog);
+            }
+        });
+    }
 }
@@ -0,0 +1,158 @@
+package io.hahn_software.emrs.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Bounded read-through cache of tasks , keyed by (tenant , id) so tenants never share entries.
+ * Entries are evicted by size and age , and precisely by id whenever a task is updated or deleted.
+ * Cached DTOs are shared between readers and must be treated as read only.
+ */
+@Slf4j
+@Component
+public class TaskCache {
+
+
+    public record TaskKey(UUID tenantId, Long id) {}
+
+
+    private final Cache<TaskKey, TaskResponseDto> cache;
+
+
+    @Autowired
+    public TaskCache(
+        MeterRegistry meterRegistry,
+        @Value("${tasks.cache.maximum-size:10000}") long maximumSize,
+        @Value("${tasks.cache.expire-after-write:5m}") Duration expireAfterWrite
+    ) {
+        this.cache = Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(expireAfterWrite)
+                        .recordStats()
+                        .build();
+
+        // cache.gets{result=hit|miss} , cache.evictions , cache.size ... tagged cache=tasks
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+
+        log.info("Task cache ready , maximum size : {} , expire after write : {} ✅", maximumSize, expireAfterWrite);
+    }
+
+
+
+    /***
+     *
+     * Returns the tasks of the given ids in request order (unknown ids are skipped) ,
+     * the misses are handed to the loader in a single call
+     */
+    public List<TaskResponseDto> getAll(
+        UUID tenantId,
+        Collection<Long> ids,
+        Function<List<Long>, List<TaskResponseDto>> loader
+    ) {
+
+        Set<TaskKey> keys = ids.stream()
+                            .map(id -> new TaskKey(tenantId, id))
+                            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<TaskKey, TaskResponseDto> found = cache.getAll(keys, misses -> load(tenantId, misses, loader));
+
+        List<TaskResponseDto> tasks = new ArrayList<>(found.size());
+
+        for (TaskKey key : keys) {
+            TaskResponseDto task = found.get(key);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+
+        return tasks;
+    }
+
+
+
+    /***
+     *
+     * The cached tasks among the given ids , keyed by id , without loading the misses
+     */
+    public Map<Long, TaskResponseDto> getAllPresent(UUID tenantId, Collection<Long> ids) {
+
+        List<TaskKey> keys = ids.stream()
+                            .map(id -> new TaskKey(tenantId, id))
+                            .toList();
+
+        return cache.getAllPresent(keys).entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().id(), Map.Entry::getValue));
+    }
+
+
+
+    private static Map<TaskKey, TaskResponseDto> load(
+        UUID tenantId,
+        Set<? extends TaskKey> misses,
+        Function<List<Long>, List<TaskResponseDto>> loader
+    ) {
+
+        List<Long> missingIds = misses.stream()
+                                .map(TaskKey::id)
+                                .toList();
+
+        log.debug("Loading {} tasks missing from the cache 🔖", missingIds.size());
+
+        return loader.apply(missingIds).stream()
+                .collect(Collectors.toMap(task -> new TaskKey(tenantId, task.getId()), Function.identity()));
+    }
+
+
+
+    /***
+     *
+     * Evicts the given tasks now , and again once the current transaction completes :
+     * a concurrent read could otherwise cache the pre-commit row between the two
+     */
+    public void evict(UUID tenantId, Collection<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return ;
+        }
+
+        List<TaskKey> keys = ids.stream()
+                            .map(id -> new TaskKey(tenantId, id))
+                            .toList();
+
+        cache.invalidateAll(keys);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.hahn_software.emrs.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.hahn_software.emrs.dtos.TaskStatsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+
+
+/***
+ *
+ * Per-tenant dashboard aggregates , dropped once a transaction that changed the tenant's counters commits.
+ * The expiry only bounds how long an entry may live if an invalidation is ever missed.
+ */
+@Component
+public class TaskStatsCache {
+
+
+    private final Cache<UUID, TaskStatsDto> cache;
+
+
+    @Autowired
+    public TaskStatsCache(
+        MeterRegistry meterRegistry,
+        @Value("${tasks.stats.cache.maximum-size:10000}") long maximumSize,
+        @Value("${tasks.stats.cache.expire-after-write:1m}") Duration expireAfterWrite
+    ) {
+        this.cache = Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(expireAfterWrite)
+                        .recordStats()
+                        .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "task-stats");
+    }
+
+
+
+    public TaskStatsDto get(UUID tenantId, Function<UUID, TaskStatsDto> loader) {
+        return cache.get(tenantId, loader);
+    }
+
+
+
+    /***
+     *
+     * Drops the tenant's entry once the current transaction completes (right away outside of a transaction) ,
+     * dropping it earlier would let a concurrent read cache the pre-commit counters again
+     */
+    public void evictAfterCompletion(UUID tenantId) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(tenantId);
+            return ;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidate(tenantId);
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package io.hahn_software.emrs.conf;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.hahn_software.emrs.utils.TenantStatementInspector;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+
+
+@Configuration
+public class MetricsConf {
+
+
+    /***
+     *
+     * Tenant guard counters , exposed under /actuator/metrics/tenant.guard.statements
+     */
+    @Bean
+    public MeterBinder tenantGuardMetrics() {
+
+        return registry -> {
+
+            FunctionCounter.builder("tenant.guard.statements", TenantStatementInspector.class, c -> TenantStatementInspector.checkedCount())
+                .description("SQL statements checked by the tenant guard")
+                .tag("result", "checked")
+                .register(registry);
+
+            FunctionCounter.builder("tenant.guard.statements", TenantStatementInspector.class, c -> TenantStatementInspector.rejectedCount())
+                .description("SQL statements checked by the tenant guard")
+                .tag("result", "rejected")
+                .register(registry);
+
+            Gauge.builder("tenant.guard.cache.size", TenantStatementInspector::cachedCount)
+                .description("Distinct SQL statements with a cached verdict")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package io.hahn_software.emrs.conf;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.hahn_software.emrs.utils.SqlStatsDataSource;
+import io.hahn_software.emrs.utils.SqlStatsRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Per fingerprint SQL statistics (sqlstats.enabled , on by default) : the DataSource is wrapped so that every
+ * statement is timed , the numbers are read through the sqlstats actuator endpoint instead of logging the SQL
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "sqlstats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConf {
+
+
+    @Bean
+    public SqlStatsRegistry sqlStatsRegistry(
+        @Value("${sqlstats.max-fingerprints:1000}") int maxFingerprints,
+        @Value("${sqlstats.max-cached-statements:4096}") int maxCachedStatements
+    ) {
+        return new SqlStatsRegistry(maxFingerprints, maxCachedStatements);
+    }
+
+
+
+    @Bean
+    public static BeanPostProcessor sqlStatsDataSourcePostProcessor(ObjectProvider<SqlStatsRegistry> registry) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatsDataSource)) {
+                    log.info("SQL statistics enabled on {} ✅", beanName);
+                    return new SqlStatsDataSource(dataSource, registry.getObject());
+                }
+
+                return bean;
+            }
+        };
+    }
+
+
+
+    @Bean
+    public SqlStatsEndpoint sqlStatsEndpoint(SqlStatsRegistry registry) {
+        return new SqlStatsEndpoint(registry);
+    }
+}
@@ -0,0 +1,60 @@
+package io.hahn_software.emrs.conf;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import io.hahn_software.emrs.utils.SqlStatsRegistry;
+import io.hahn_software.emrs.utils.SqlStatsRegistry.Order;
+import io.hahn_software.emrs.utils.SqlStatsRegistry.Snapshot;
+
+
+
+/***
+ *
+ * GET /actuator/sqlstats?limit=20&orderBy=TOTAL : the heaviest statement fingerprints ,
+ * orderBy one of TOTAL , COUNT , MAX , MEAN , P99 , ROWS.
+ * DELETE /actuator/sqlstats : starts a new measurement window.
+ */
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+
+    private static final int DEFAULT_LIMIT = 20;
+
+
+    private final SqlStatsRegistry registry;
+
+
+    public SqlStatsEndpoint(SqlStatsRegistry registry) {
+        this.registry = registry;
+    }
+
+
+
+    @ReadOperation
+    public Map<String, Object> top(@Nullable Integer limit, @Nullable Order orderBy) {
+
+        List<Snapshot> statements = registry.top(
+            limit == null || limit <= 0 ? DEFAULT_LIMIT : limit,
+            orderBy == null ? Order.TOTAL : orderBy
+        );
+
+        return Map.of(
+            "fingerprints", registry.size(),
+            "orderBy", orderBy == null ? Order.TOTAL : orderBy,
+            "statements", statements
+        );
+    }
+
+
+
+    @DeleteOperation
+    public void reset() {
+        registry.reset();
+    }
+}
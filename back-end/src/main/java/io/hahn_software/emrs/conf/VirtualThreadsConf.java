@@ -0,0 +1,97 @@
+package io.hahn_software.emrs.conf;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import io.hahn_software.emrs.utils.AdmissionControlDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Opt-in virtual thread mode (profile virtual-threads , JDK 21+) : requests , async work and the Feign calls they make
+ * run on virtual threads (spring.threads.virtual.enabled) , database access is admitted through a semaphore
+ * sized to the Hikari pool so that the extra concurrency queues in front of the pool instead of inside it.
+ */
+@Slf4j
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConf {
+
+
+    @Bean
+    public static BeanPostProcessor dataSourceAdmissionPostProcessor(Environment environment) {
+
+        int permits = environment.getProperty("db.admission.permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+
+        long timeoutMs = environment.getProperty("db.admission.timeout-ms", Long.class,
+                        environment.getProperty("spring.datasource.hikari.connection-timeout", Long.class, 30000L));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+
+                if (bean instanceof DataSource dataSource && !(bean instanceof AdmissionControlDataSource)) {
+                    log.info("Database admission control on {} : {} permits , {}ms timeout ✅", beanName, permits, timeoutMs);
+                    return new AdmissionControlDataSource(dataSource, permits, timeoutMs);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+
+
+    /***
+     *
+     * The DataSource bean may be wrapped again after admission control (SqlStatsDataSource , depending on the
+     * post-processor order) , so the admission layer is looked up through unwrap instead of the bean's own type
+     */
+    @Bean
+    public MeterBinder dataSourceAdmissionMetrics(DataSource dataSource) {
+
+        return registry -> {
+
+            AdmissionControlDataSource admission = admissionControl(dataSource);
+
+            if (admission == null) {
+                log.warn("No database admission control found on the DataSource , admission metrics are not registered");
+                return ;
+            }
+
+            Gauge.builder("db.admission.permits.available", admission, AdmissionControlDataSource::getAvailablePermits)
+                .description("Database permits currently free")
+                .register(registry);
+
+            Gauge.builder("db.admission.queue", admission, AdmissionControlDataSource::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .register(registry);
+        };
+    }
+
+
+
+    private static AdmissionControlDataSource admissionControl(DataSource dataSource) {
+
+        try {
+            return dataSource.isWrapperFor(AdmissionControlDataSource.class)
+                    ? dataSource.unwrap(AdmissionControlDataSource.class)
+                    : null;
+        } catch (SQLException e) {
+            log.warn("Could not unwrap the DataSource : {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import io.hahn_software.emrs.cache.TaskCache;
+import io.hahn_software.emrs.entities.ArchivedTask;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.TaskCounterDeltas;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CountedFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Cold tier of the tasks (tasks_archive) and the per-tenant archive policies.
+ * Tasks only get there through archiveBatch , which moves DONE tasks in one statement : the same rows are deleted
+ * from tasks and inserted into tasks_archive , so a task is always in exactly one of the two tables.
+ */
+@Slf4j
+@Repository
+public class TaskArchiveRepo {
+
+
+    private static final String COLUMNS = "id, tenant_id, name, status, priority, description, estimate_date, "
+                                        + "assign_to_user_id, user_name, created_at, updated_at";
+
+    /**
+     * The candidates are locked with SKIP LOCKED : a task being updated or deleted right now is left for the next run
+     * instead of blocking the archiver (or the request) on its row lock
+     */
+    private static final String ARCHIVE_BATCH =
+                "WITH moved AS ( "
+            +       "DELETE FROM tasks t WHERE t.tenant_id = :tenantId AND t.id IN ( "
+            +           "SELECT c.id FROM tasks c "
+            +           "WHERE c.tenant_id = :tenantId AND c.status = 'DONE' AND c.updated_at < :cutoff "
+            +           "ORDER BY c.id LIMIT :batchSize FOR UPDATE SKIP LOCKED "
+            +       ") RETURNING t.* "
+            +   "), archived AS ( "
+            +       "INSERT INTO tasks_archive (" + COLUMNS + ", archived_at) "
+            +       "SELECT " + COLUMNS + ", CURRENT_TIMESTAMP FROM moved "
+            +   ") "
+            +   "SELECT m.id, m.priority, CAST(m.assign_to_user_id AS varchar) FROM moved m ORDER BY m.id";
+
+
+    @PersistenceContext
+    private EntityManager em ;
+
+    private final JdbcTemplate jdbcTemplate ;
+
+    private final TaskCounterRepo taskCounterRepo ;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver ;
+
+    private final TaskCache taskCache ;
+
+
+    @Autowired
+    public TaskArchiveRepo(
+        JdbcTemplate jdbcTemplate,
+        TaskCounterRepo taskCounterRepo,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        TaskCache taskCache
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskCounterRepo = taskCounterRepo;
+        this.tenantResolver = tenantResolver;
+        this.taskCache = taskCache;
+    }
+
+
+
+    /***
+     *
+     * Tenants that currently have DONE tasks , read from the counters (one row per tenant) rather than the tasks table.
+     * Runs outside of any tenant , through plain JDBC since a Hibernate session needs one
+     */
+    public List<UUID> tenantsWithDoneTasks() {
+
+        return jdbcTemplate.queryForList(
+            "SELECT c.tenant_id FROM task_counters c "
+            + "WHERE c.dimension = 'STATUS' AND c.bucket = 'DONE' AND c.task_count > 0",
+            UUID.class
+        );
+    }
+
+
+
+    /** Archive age in days of every tenant with a policy , same cross-tenant read as tenantsWithDoneTasks */
+    public Map<UUID, Integer> policies() {
+
+        Map<UUID, Integer> policies = new HashMap<>();
+
+        jdbcTemplate.query(
+            "SELECT p.tenant_id, p.done_age_days FROM task_archive_policies p",
+            rs -> {
+                policies.put(rs.getObject(1, UUID.class), rs.getInt(2));
+            }
+        );
+
+        return policies;
+    }
+
+
+
+    /***
+     *
+     * Moves up to batchSize DONE tasks of the current tenant last updated before the cutoff , returns their ids.
+     * Counters and cache are kept in step within the same transaction , as for a delete
+     */
+    public List<Long> archiveBatch(Instant cutoff, int batchSize) {
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(ARCHIVE_BATCH)
+                                .setParameter("tenantId", tenantId)
+                                .setParameter("cutoff", cutoff)
+                                .setParameter("batchSize", batchSize)
+                                .getResultList();
+
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
+
+        List<Long> ids = rows.stream()
+                            .map(row -> {
+                                deltas.taskRemoved(new CountedFields(
+                                    TaskStatus.DONE,
+                                    TaskPriority.valueOf((String) row[1]),
+                                    UUID.fromString((String) row[2])
+                                ));
+                                return ((Number) row[0]).longValue();
+                            })
+                            .toList();
+
+        taskCounterRepo.applyDeltas(deltas);
+        taskCache.evict(tenantId, ids);
+
+        log.debug("Archived {} tasks 🔖", ids.size());
+
+        return ids;
+    }
+
+
+
+    public List<ArchivedTask> findByIds(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String jpql = "SELECT a FROM ArchivedTask a WHERE a.id IN :ids";
+
+        return em.createQuery(jpql, ArchivedTask.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+    }
+
+
+
+    public List<ArchivedTask> findWithPagination(int page, int pageSize) {
+
+        String jpql = "SELECT a FROM ArchivedTask a ORDER BY a.id";
+
+        TypedQuery<ArchivedTask> query = em.createQuery(jpql, ArchivedTask.class);
+
+        query.setFirstResult(page * pageSize);
+        query.setMaxResults(pageSize);
+
+        return query.getResultList();
+    }
+
+
+
+    public Long count() {
+
+        return em.createQuery("SELECT COUNT(a) FROM ArchivedTask a", Long.class)
+                    .getSingleResult();
+    }
+
+
+
+    /** Archive age in days of the current tenant , empty when it uses the default */
+    public Optional<Integer> policy() {
+
+        String sql = "SELECT p.done_age_days FROM task_archive_policies p WHERE p.tenant_id = :tenantId";
+
+        @SuppressWarnings("unchecked")
+        List<Number> rows = em.createNativeQuery(sql)
+                                .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+                                .getResultList();
+
+        return rows.stream().findFirst().map(Number::intValue);
+    }
+
+
+
+    public void savePolicy(int doneAgeDays) {
+
+        String sql = "INSERT INTO task_archive_policies (tenant_id, done_age_days, updated_at) "
+                    + "VALUES (:tenantId, :doneAgeDays, CURRENT_TIMESTAMP) "
+                    + "ON CONFLICT (tenant_id) DO UPDATE SET done_age_days = EXCLUDED.done_age_days , updated_at = EXCLUDED.updated_at";
+
+        em.createNativeQuery(sql)
+            .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+            .setParameter("doneAgeDays", doneAgeDays)
+            .executeUpdate();
+    }
+}
@@ -0,0 +1,740 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import io.hahn_software.emrs.cache.TaskCache;
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.PatchOutcome;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.enums.UpsertConflictAction;
+import io.hahn_software.emrs.enums.UpsertOutcome;
+import io.hahn_software.emrs.utils.CsvUtils;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.TaskCounterDeltas;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CountedFields;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Set based writes on the tasks table that go below JPA (COPY , multi-row statements) ,
+ * they keep the per-tenant counters exact like the TaskRepo write paths.
+ */
+@Slf4j
+@Repository
+public class TaskBulkRepo {
+
+
+    private static final String COPY_SQL = "COPY tasks "
+                                + "(id, tenant_id, name, status, priority, description, estimate_date, assign_to_user_id, user_name, created_at, updated_at) "
+                                + "FROM STDIN WITH (FORMAT csv)";
+
+
+    private static final String UPSERT_INSERT_SQL = "INSERT INTO tasks "
+                                + "(id, tenant_id, name, status, priority, description, estimate_date, assign_to_user_id, user_name, created_at, updated_at) "
+                                + "VALUES %s "
+                                + "ON CONFLICT (tenant_id, name) DO NOTHING "
+                                + "RETURNING id";
+
+    private static final String UPSERT_INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    // rows whose values are already the requested ones are left alone : a re-sync does not touch unchanged tasks
+    private static final String UPSERT_UPDATE_SQL = "UPDATE tasks AS t SET "
+                                + "status = v.status, priority = v.priority, description = v.description, estimate_date = v.estimate_date, "
+                                + "assign_to_user_id = v.assign_to_user_id, user_name = v.user_name, updated_at = CURRENT_TIMESTAMP "
+                                + "FROM (VALUES %s) AS v (id, status, priority, description, estimate_date, assign_to_user_id, user_name) "
+                                + "WHERE t.tenant_id = ? AND t.id = v.id "
+                                + "AND (t.status, t.priority, t.description, t.estimate_date, t.assign_to_user_id, t.user_name) "
+                                + "IS DISTINCT FROM (v.status, v.priority, v.description, v.estimate_date, v.assign_to_user_id, v.user_name) "
+                                + "RETURNING t.id";
+
+    private static final String UPSERT_UPDATE_ROW = "(CAST(? AS bigint), CAST(? AS varchar), CAST(? AS varchar), CAST(? AS text), "
+                                + "CAST(? AS timestamptz), CAST(? AS uuid), CAST(? AS varchar))";
+
+    private static final String FIND_BY_NAMES_SQL = "SELECT id, name, status, priority, assign_to_user_id FROM tasks "
+                                + "WHERE tenant_id = ? AND name = ANY (?) "
+                                + "ORDER BY id";
+
+    private static final String FIND_BY_IDS_SQL = "SELECT id, status, priority, assign_to_user_id FROM tasks "
+                                + "WHERE tenant_id = ? AND id = ANY (?) "
+                                + "ORDER BY id FOR UPDATE";
+
+    // one statement per shape (set of patched columns) , unchanged rows are left alone as for the upsert
+    private static final String PATCH_SQL = "UPDATE tasks AS t SET %s, updated_at = CURRENT_TIMESTAMP "
+                                + "FROM (VALUES %s) AS v (id, %s) "
+                                + "WHERE t.tenant_id = ? AND t.id = v.id "
+                                + "AND (%s) IS DISTINCT FROM (%s) "
+                                + "RETURNING t.id";
+
+    /**
+     * a conflicting insert means another transaction created the name in between , the next attempt finds it
+     */
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+
+
+    /**
+     * outcome of one upserted task
+     */
+    public record Upserted(Long id, UpsertOutcome outcome) {}
+
+
+    private record ExistingTask(Long id, CountedFields fields) {}
+
+
+    /**
+     * A patchable column , in column order : a patch sets the columns whose value is not null.
+     * name is not patchable : it is the (tenant_id, name) unique key and one colliding name would fail the whole statement
+     */
+    private record PatchColumn(String column, String type, Function<Task, Object> value) {}
+
+    private static final List<PatchColumn> PATCH_COLUMNS = List.of(
+        new PatchColumn("status", "varchar", Task::getStatus),
+        new PatchColumn("priority", "varchar", Task::getPriority),
+        new PatchColumn("description", "text", Task::getDescription),
+        new PatchColumn("estimate_date", "timestamptz", Task::getEstimateDate),
+        new PatchColumn("assign_to_user_id", "uuid", Task::getAssignToUserId),
+        new PatchColumn("user_name", "varchar", Task::getUserName)
+    );
+
+
+    @PersistenceContext
+    private EntityManager em ;
+
+    private final TaskCounterRepo taskCounterRepo ;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver ;
+
+    private final TaskCache taskCache ;
+
+    private final int upsertBatchSize ;
+
+    private final int patchBatchSize ;
+
+
+    @Autowired
+    public TaskBulkRepo(
+        TaskCounterRepo taskCounterRepo,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        TaskCache taskCache,
+        @Value("${tasks.upsert.batch-size:500}") int upsertBatchSize,
+        @Value("${tasks.patch.batch-size:1000}") int patchBatchSize
+    ) {
+        this.taskCounterRepo = taskCounterRepo;
+        this.tenantResolver = tenantResolver;
+        this.taskCache = taskCache;
+        this.upsertBatchSize = upsertBatchSize;
+        this.patchBatchSize = patchBatchSize;
+    }
+
+
+
+    /***
+     *
+     * Writes the tasks with PostgreSQL COPY in the current transaction and returns their ids in the same order.
+     * Ids come from the entity's own sequence generator so they never collide with the JPA insert path.
+     */
+    public List<Long> copyInBatch(List<Task> tasks) {
+
+        if (tasks == null || tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Session session = em.unwrap(Session.class);
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+        String now = Instant.now().toString();
+
+        List<Long> ids = generateIds(session, tasks);
+
+        StringBuilder csv = new StringBuilder(tasks.size() * 128);
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
+
+        for (int i = 0; i < tasks.size(); i++) {
+
+            Task task = tasks.get(i);
+
+            csv.append(ids.get(i)).append(',')
+                .append(tenantId).append(',')
+                .append(CsvUtils.escape(task.getName())).append(',')
+                .append(task.getStatus()).append(',')
+                .append(task.getPriority()).append(',')
+                .append(CsvUtils.escape(task.getDescription())).append(',')
+                .append(CsvUtils.escape(task.getEstimateDate())).append(',')
+                .append(task.getAssignToUserId()).append(',')
+                .append(CsvUtils.escape(task.getUserName())).append(',')
+                .append(now).append(',')
+                .append(now).append('\n');
+
+            deltas.taskAdded(task);
+        }
+
+        long copied = session.doReturningWork(connection -> {
+            try {
+                return connection.unwrap(PGConnection.class)
+                            .getCopyAPI()
+                            .copyIn(COPY_SQL, new StringReader(csv.toString()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        taskCounterRepo.applyDeltas(deltas);
+
+        log.debug("Copied {} tasks 🔖", copied);
+
+        return ids ;
+    }
+
+
+
+    /***
+     *
+     * Creates the tasks whose name is new in the tenant and , depending on onConflict , updates or skips the others.
+     * Returns one outcome per task , in the same order. A name repeated in the list is written once (first occurrence) ,
+     * its later occurrences are SKIPPED with the id of the written task.
+     *
+     * Existing rows are read (and locked with UPDATE) before they are written so the counters move by their previous
+     * values , new rows are inserted with ON CONFLICT DO NOTHING and the names that conflicted meanwhile are retried.
+     */
+    public List<Upserted> upsertInBatch(List<Task> tasks, UpsertConflictAction onConflict) {
+
+        if (tasks == null || tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Session session = em.unwrap(Session.class);
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        Upserted[] results = new Upserted[tasks.size()];
+        Map<String, Integer> firstIndexByName = new HashMap<>();
+        List<Integer> distinct = new ArrayList<>(tasks.size());
+
+        for (int i = 0; i < tasks.size(); i++) {
+            if (firstIndexByName.putIfAbsent(tasks.get(i).getName(), i) == null) {
+                distinct.add(i);
+            }
+        }
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
+        List<Long> updatedIds = new ArrayList<>();
+
+        session.doWork(connection -> {
+            for (int from = 0; from < distinct.size(); from += upsertBatchSize) {
+
+                List<Integer> batch = distinct.subList(from, Math.min(from + upsertBatchSize, distinct.size()));
+
+                upsertBatch(connection, session, tenantId, tasks, batch, onConflict, results, deltas, updatedIds);
+            }
+        });
+
+        for (int i = 0; i < tasks.size(); i++) {
+            if (results[i] == null) {
+                results[i] = new Upserted(results[firstIndexByName.get(tasks.get(i).getName())].id(), UpsertOutcome.SKIPPED);
+            }
+        }
+
+        taskCounterRepo.applyDeltas(deltas);
+        taskCache.evict(tenantId, updatedIds);
+
+        log.debug("Upserted {} tasks ({} distinct names) 🔖", tasks.size(), distinct.size());
+
+        return Arrays.asList(results);
+    }
+
+
+
+    private void upsertBatch(
+        Connection connection,
+        Session session,
+        UUID tenantId,
+        List<Task> tasks,
+        List<Integer> batch,
+        UpsertConflictAction onConflict,
+        Upserted[] results,
+        TaskCounterDeltas deltas,
+        List<Long> updatedIds
+    ) throws SQLException {
+
+        List<Integer> pending = batch;
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+
+            if (attempt > MAX_UPSERT_ATTEMPTS) {
+                throw new IllegalStateException(
+                    pending.size() + " task names keep conflicting with concurrent writes after " + MAX_UPSERT_ATTEMPTS + " attempts"
+                );
+            }
+
+            Map<String, ExistingTask> existing = findByNames(
+                connection,
+                tenantId,
+                pending.stream().map(index -> tasks.get(index).getName()).toList(),
+                onConflict == UpsertConflictAction.UPDATE
+            );
+
+            List<Integer> toInsert = new ArrayList<>();
+            List<Integer> toUpdate = new ArrayList<>();
+
+            for (Integer index : pending) {
+
+                ExistingTask current = existing.get(tasks.get(index).getName());
+
+                if (current == null) {
+                    toInsert.add(index);
+                } else if (onConflict == UpsertConflictAction.UPDATE) {
+                    toUpdate.add(index);
+                } else {
+                    results[index] = new Upserted(current.id(), UpsertOutcome.SKIPPED);
+                }
+            }
+
+            if (!toUpdate.isEmpty()) {
+                update(connection, tenantId, tasks, toUpdate, existing, results, deltas, updatedIds);
+            }
+
+            pending = toInsert.isEmpty()
+                        ? List.of()
+                        : insert(connection, session, tenantId, tasks, toInsert, results, deltas);
+        }
+    }
+
+
+
+    /***
+     *
+     * Existing tasks of the tenant with one of the names , keyed by name. lock = true locks them (in id order)
+     * until the end of the transaction
+     */
+    private Map<String, ExistingTask> findByNames(
+        Connection connection,
+        UUID tenantId,
+        List<String> names,
+        boolean lock
+    ) throws SQLException {
+
+        Map<String, ExistingTask> existing = new HashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_NAMES_SQL + (lock ? " FOR UPDATE" : ""))) {
+
+            statement.setObject(1, tenantId);
+            statement.setArray(2, connection.createArrayOf("varchar", names.toArray()));
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    existing.put(
+                        rows.getString("name"),
+                        new ExistingTask(
+                            rows.getLong("id"),
+                            new CountedFields(
+                                TaskStatus.valueOf(rows.getString("status")),
+                                TaskPriority.valueOf(rows.getString("priority")),
+                                rows.getObject("assign_to_user_id", UUID.class)
+                            )
+                        )
+                    );
+                }
+            }
+        }
+
+        return existing;
+    }
+
+
+
+    private void update(
+        Connection connection,
+        UUID tenantId,
+        List<Task> tasks,
+        List<Integer> indexes,
+        Map<String, ExistingTask> existing,
+        Upserted[] results,
+        TaskCounterDeltas deltas,
+        List<Long> updatedIds
+    ) throws SQLException {
+
+        String sql = String.format(UPSERT_UPDATE_SQL, String.join(", ", Collections.nCopies(indexes.size(), UPSERT_UPDATE_ROW)));
+
+        Set<Long> changed = new HashSet<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            int parameter = 1;
+
+            for (Integer index : indexes) {
+
+                Task task = tasks.get(index);
+
+                statement.setLong(parameter++, existing.get(task.getName()).id());
+                statement.setString(parameter++, task.getStatus().name());
+                statement.setString(parameter++, task.getPriority().name());
+                statement.setString(parameter++, task.getDescription());
+                setInstant(statement, parameter++, task.getEstimateDate());
+                statement.setObject(parameter++, task.getAssignToUserId());
+                statement.setString(parameter++, task.getUserName());
+            }
+
+            statement.setObject(parameter, tenantId);
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    changed.add(rows.getLong(1));
+                }
+            }
+        }
+
+        for (Integer index : indexes) {
+
+            Task task = tasks.get(index);
+            ExistingTask current = existing.get(task.getName());
+
+            if (changed.contains(current.id())) {
+                results[index] = new Upserted(current.id(), UpsertOutcome.UPDATED);
+                deltas.taskChanged(current.fields(), task);
+                updatedIds.add(current.id());
+            } else {
+                results[index] = new Upserted(current.id(), UpsertOutcome.SKIPPED);
+            }
+        }
+    }
+
+
+
+    /***
+     *
+     * Inserts the tasks , returns the indexes of those whose name was created concurrently (not inserted)
+     */
+    private List<Integer> insert(
+        Connection connection,
+        Session session,
+        UUID tenantId,
+        List<Task> tasks,
+        List<Integer> indexes,
+        Upserted[] results,
+        TaskCounterDeltas deltas
+    ) throws SQLException {
+
+        List<Task> candidates = indexes.stream().map(tasks::get).toList();
+        List<Long> ids = generateIds(session, candidates);
+
+        String sql = String.format(UPSERT_INSERT_SQL, String.join(", ", Collections.nCopies(indexes.size(), UPSERT_INSERT_ROW)));
+
+        Set<Long> inserted = new HashSet<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            int parameter = 1;
+
+            for (int i = 0; i < candidates.size(); i++) {
+
+                Task task = candidates.get(i);
+
+                statement.setLong(parameter++, ids.get(i));
+                statement.setObject(parameter++, tenantId);
+                statement.setString(parameter++, task.getName());
+                statement.setString(parameter++, task.getStatus().name());
+                statement.setString(parameter++, task.getPriority().name());
+                statement.setString(parameter++, task.getDescription());
+                setInstant(statement, parameter++, task.getEstimateDate());
+                statement.setObject(parameter++, task.getAssignToUserId());
+                statement.setString(parameter++, task.getUserName());
+            }
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    inserted.add(rows.getLong(1));
+                }
+            }
+        }
+
+        List<Integer> conflicting = new ArrayList<>();
+
+        for (int i = 0; i < candidates.size(); i++) {
+
+            if (inserted.contains(ids.get(i))) {
+                results[indexes.get(i)] = new Upserted(ids.get(i), UpsertOutcome.CREATED);
+                deltas.taskAdded(candidates.get(i));
+            } else {
+                conflicting.add(indexes.get(i));
+            }
+        }
+
+        return conflicting;
+    }
+
+
+
+    /***
+     *
+     * Applies a different patch to every task (a Task carrying the id and the fields to change , null fields are kept ,
+     * name is ignored).
+     * Returns one outcome per patch , in the same order , a repeated id is applied once (first occurrence).
+     *
+     * The tasks are taken patchBatchSize ids at a time in id order : the chunk is locked (FOR UPDATE) and its counted
+     * fields read , then its patches are grouped by the set of columns they change and every group is written with
+     * a single UPDATE ... FROM (VALUES ...) , so the round trips grow with the number of shapes , not of tasks.
+     */
+    public List<PatchOutcome> patchInBatch(List<Task> patches) {
+
+        if (patches == null || patches.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Session session = em.unwrap(Session.class);
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        PatchOutcome[] results = new PatchOutcome[patches.size()];
+        Map<Long, Integer> firstIndexById = new HashMap<>();
+
+        for (int i = 0; i < patches.size(); i++) {
+            if (firstIndexById.putIfAbsent(patches.get(i).getId(), i) != null) {
+                results[i] = PatchOutcome.DUPLICATE;
+            }
+        }
+
+        // id order : concurrent patches lock their rows in the same order
+        List<Integer> distinct = firstIndexById.values().stream()
+                                    .sorted(Comparator.comparing(index -> patches.get(index).getId()))
+                                    .toList();
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
+        List<Long> updatedIds = new ArrayList<>();
+
+        session.doWork(connection -> {
+            for (int from = 0; from < distinct.size(); from += patchBatchSize) {
+
+                List<Integer> batch = distinct.subList(from, Math.min(from + patchBatchSize, distinct.size()));
+
+                patchBatch(connection, tenantId, patches, batch, results, deltas, updatedIds);
+            }
+        });
+
+        taskCounterRepo.applyDeltas(deltas);
+        taskCache.evict(tenantId, updatedIds);
+
+        log.debug("Patched {} of {} tasks 🔖", updatedIds.size(), patches.size());
+
+        return Arrays.asList(results);
+    }
+
+
+
+    private void patchBatch(
+        Connection connection,
+        UUID tenantId,
+        List<Task> patches,
+        List<Integer> batch,
+        PatchOutcome[] results,
+        TaskCounterDeltas deltas,
+        List<Long> updatedIds
+    ) throws SQLException {
+
+        Map<Long, CountedFields> existing = lockByIds(
+            connection,
+            tenantId,
+            batch.stream().map(index -> patches.get(index).getId()).toList()
+        );
+
+        Map<List<PatchColumn>, List<Integer>> byShape = new LinkedHashMap<>();
+
+        for (Integer index : batch) {
+
+            Task patch = patches.get(index);
+
+            List<PatchColumn> shape = PATCH_COLUMNS.stream()
+                                        .filter(column -> column.value().apply(patch) != null)
+                                        .toList();
+
+            if (!existing.containsKey(patch.getId())) {
+                results[index] = PatchOutcome.NOT_FOUND;
+            } else if (shape.isEmpty()) {
+                results[index] = PatchOutcome.UNCHANGED;
+            } else {
+                byShape.computeIfAbsent(shape, columns -> new ArrayList<>()).add(index);
+            }
+        }
+
+        for (Map.Entry<List<PatchColumn>, List<Integer>> group : byShape.entrySet()) {
+
+            Set<Long> changed = patch(connection, tenantId, group.getKey(), patches, group.getValue());
+
+            for (Integer index : group.getValue()) {
+
+                Task patch = patches.get(index);
+
+                if (changed.contains(patch.getId())) {
+                    results[index] = PatchOutcome.UPDATED;
+                    deltas.taskChanged(existing.get(patch.getId()), patch);
+                    updatedIds.add(patch.getId());
+                } else {
+                    results[index] = PatchOutcome.UNCHANGED;
+                }
+            }
+        }
+    }
+
+
+
+    /***
+     *
+     * Locks the tasks of the tenant with one of the ids (in id order) and returns their counted fields by id
+     */
+    private Map<Long, CountedFields> lockByIds(Connection connection, UUID tenantId, List<Long> ids) throws SQLException {
+
+        Map<Long, CountedFields> existing = new HashMap<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(FIND_BY_IDS_SQL)) {
+
+            statement.setObject(1, tenantId);
+            statement.setArray(2, connection.createArrayOf("bigint", ids.toArray()));
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    existing.put(
+                        rows.getLong("id"),
+                        new CountedFields(
+                            TaskStatus.valueOf(rows.getString("status")),
+                            TaskPriority.valueOf(rows.getString("priority")),
+                            rows.getObject("assign_to_user_id", UUID.class)
+                        )
+                    );
+                }
+            }
+        }
+
+        return existing;
+    }
+
+
+
+    /***
+     *
+     * One UPDATE for the patches of the same shape , returns the ids of the rows actually changed
+     */
+    private Set<Long> patch(
+        Connection connection,
+        UUID tenantId,
+        List<PatchColumn> columns,
+        List<Task> patches,
+        List<Integer> indexes
+    ) throws SQLException {
+
+        StringBuilder row = new StringBuilder("(CAST(? AS bigint)");
+        columns.forEach(column -> row.append(", CAST(? AS ").append(column.type()).append(')'));
+        row.append(')');
+
+        String sql = String.format(
+            PATCH_SQL,
+            columns.stream().map(column -> column.column() + " = v." + column.column()).collect(Collectors.joining(", ")),
+            String.join(", ", Collections.nCopies(indexes.size(), row)),
+            columns.stream().map(PatchColumn::column).collect(Collectors.joining(", ")),
+            columns.stream().map(column -> "t." + column.column()).collect(Collectors.joining(", ")),
+            columns.stream().map(column -> "v." + column.column()).collect(Collectors.joining(", "))
+        );
+
+        Set<Long> changed = new HashSet<>();
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+
+            int parameter = 1;
+
+            for (Integer index : indexes) {
+
+                Task patch = patches.get(index);
+
+                statement.setLong(parameter++, patch.getId());
+
+                for (PatchColumn column : columns) {
+                    setValue(statement, parameter++, column.value().apply(patch));
+                }
+            }
+
+            statement.setObject(parameter, tenantId);
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    changed.add(rows.getLong(1));
+                }
+            }
+        }
+
+        return changed;
+    }
+
+
+
+    private static void setValue(PreparedStatement statement, int parameter, Object value) throws SQLException {
+
+        if (value instanceof Enum<?> constant) {
+            statement.setString(parameter, constant.name());
+        } else if (value instanceof Instant instant) {
+            setInstant(statement, parameter, instant);
+        } else {
+            statement.setObject(parameter, value);
+        }
+    }
+
+
+
+    private static void setInstant(PreparedStatement statement, int parameter, Instant value) throws SQLException {
+
+        if (value == null) {
+            statement.setNull(parameter, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            statement.setObject(parameter, OffsetDateTime.ofInstant(value, ZoneOffset.UTC));
+        }
+    }
+
+
+
+    private List<Long> generateIds(Session session, List<Task> tasks) {
+
+        SharedSessionContractImplementor sessionImplementor = session.unwrap(SharedSessionContractImplementor.class);
+
+        IdentifierGenerator generator = sessionImplementor.getFactory()
+                                            .getMappingMetamodel()
+                                            .getEntityDescriptor(Task.class)
+                                            .getIdentifierGenerator();
+
+        List<Long> ids = new ArrayList<>(tasks.size());
+
+        for (Task task : tasks) {
+            ids.add(((Number) generator.generate(sessionImplementor, task)).longValue());
+        }
+
+        return ids ;
+    }
+}
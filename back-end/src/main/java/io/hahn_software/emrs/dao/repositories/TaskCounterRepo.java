@@ -0,0 +1,145 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import io.hahn_software.emrs.cache.TaskStatsCache;
+import io.hahn_software.emrs.enums.CounterDimension;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.TaskCounterDeltas;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CounterKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Per-tenant task counters , kept exact by the write paths of TaskRepo inside their own transaction
+ * so totals can be read in O(1) instead of counting the tasks table.
+ */
+@Slf4j
+@Repository
+public class TaskCounterRepo {
+
+
+    @PersistenceContext
+    private EntityManager em ;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver ;
+
+    private final TaskStatsCache taskStatsCache ;
+
+
+    @Autowired
+    public TaskCounterRepo(
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        TaskStatsCache taskStatsCache
+    ) {
+        this.tenantResolver = tenantResolver;
+        this.taskStatsCache = taskStatsCache;
+    }
+
+
+
+    public void applyDeltas(TaskCounterDeltas deltas) {
+
+        if (deltas == null || deltas.isEmpty()) {
+            return ;
+        }
+
+        Map<CounterKey, Long> changes = deltas.asMap();
+
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO task_counters (tenant_id, dimension, bucket, task_count) VALUES "
+        );
+
+        int index = 0;
+
+        for (int i = 0; i < changes.size(); i++) {
+            sql.append(i == 0 ? "" : ", ")
+                .append("(:tenantId, :dimension").append(i)
+                .append(", :bucket").append(i)
+                .append(", :delta").append(i).append(")");
+        }
+
+        sql.append(" ON CONFLICT (tenant_id, dimension, bucket)")
+            .append(" DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count");
+
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        Query query = em.createNativeQuery(sql.toString())
+                        .setParameter("tenantId", tenantId);
+
+        for (Map.Entry<CounterKey, Long> change : changes.entrySet()) {
+            query.setParameter("dimension" + index, change.getKey().dimension().name());
+            query.setParameter("bucket" + index, change.getKey().bucket());
+            query.setParameter("delta" + index, change.getValue());
+            index++;
+        }
+
+        log.debug("Applying {} task counter deltas 🔖", changes.size());
+
+        query.executeUpdate();
+
+        taskStatsCache.evictAfterCompletion(tenantId);
+    }
+
+
+
+    /***
+     *
+     * Every non empty bucket of the current tenant , one row per bucket whatever the number of tasks
+     */
+    public Map<CounterDimension, Map<String, Long>> buckets() {
+
+        String sql = "SELECT c.dimension, c.bucket, c.task_count FROM task_counters c "
+                    + "WHERE c.tenant_id = :tenantId AND c.task_count <> 0";
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(sql)
+                                .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+                                .getResultList();
+
+        Map<CounterDimension, Map<String, Long>> buckets = new EnumMap<>(CounterDimension.class);
+
+        for (Object[] row : rows) {
+            buckets.computeIfAbsent(CounterDimension.valueOf((String) row[0]), dimension -> new HashMap<>())
+                .put((String) row[1], ((Number) row[2]).longValue());
+        }
+
+        return buckets;
+    }
+
+
+
+    /** Sum of all the buckets of a dimension , for STATUS this is the tenant's task total */
+    public long sum(CounterDimension dimension) {
+
+        return sum(tenantResolver.resolveCurrentTenantIdentifier(), dimension);
+    }
+
+
+
+    public long sum(UUID tenantId, CounterDimension dimension) {
+
+        String sql = "SELECT COALESCE(SUM(c.task_count), 0) FROM task_counters c "
+                    + "WHERE c.tenant_id = :tenantId AND c.dimension = :dimension";
+
+        Number total = (Number) em.createNativeQuery(sql)
+                                .setParameter("tenantId", tenantId)
+                                .setParameter("dimension", dimension.name())
+                                .getSingleResult();
+
+        return total.longValue();
+    }
+}
@@ -1,19 +1,51 @@
 package io.hahn_software.emrs.dao.repositories;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import com.trackswiftly.utils.interfaces.BaseDao;
 
+import io.hahn_software.emrs.cache.TaskCache;
+import io.hahn_software.emrs.dtos.TaskFilter;
 import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.SortDirection;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskSort;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.DateUtils;
 import io.hahn_software.emrs.utils.DBUtiles;
+import io.hahn_software.emrs.utils.TaskCounterDeltas;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CountedFields;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +66,32 @@ public class TaskRepo implements BaseDao <Task , Long>{
     private EntityManager em ;
 
 
+    private final TaskCounterRepo taskCounterRepo ;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver ;
+
+    private final TaskCache taskCache ;
+
+    private final Counter flushCounter ;
+
+    private final Counter clearCounter ;
+
+
+    @Autowired
+    public TaskRepo(
+        TaskCounterRepo taskCounterRepo,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        TaskCache taskCache,
+        MeterRegistry meterRegistry
+    ) {
+        this.taskCounterRepo = taskCounterRepo;
+        this.tenantResolver = tenantResolver;
+        this.taskCache = taskCache;
+        this.flushCounter = meterRegistry.counter("tasks.persistence.context", "action", "flush");
+        this.clearCounter = meterRegistry.counter("tasks.persistence.context", "action", "clear");
+    }
+
+
     @Override
     public Long count() {
 
@@ -52,11 +110,21 @@ public class TaskRepo implements BaseDao <Task , Long>{
             return 0;
         }
 
-        String jpql = "DELETE FROM Task d WHERE d.id IN :ids" ;
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
 
-        return em.createQuery(jpql)
+        lockCountedFields(ids).forEach(deltas::taskRemoved);
+
+        String jpql = "DELETE FROM Task d WHERE d.tenantId = :tenantId AND d.id IN :ids" ;
+
+        int deleted = em.createQuery(jpql)
+                    .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
                     .setParameter("ids", ids )
                     .executeUpdate() ;
+
+        taskCounterRepo.applyDeltas(deltas);
+        taskCache.evict(tenantResolver.resolveCurrentTenantIdentifier(), ids);
+
+        return deleted ;
     }
 
     @Override
@@ -74,6 +142,24 @@ public class TaskRepo implements BaseDao <Task , Long>{
                             .getResultList();
     }
 
+    /***
+     *
+     * updated_at of the given tasks keyed by id (unknown ids are absent) , a projection : nothing is hydrated
+     */
+    public Map<Long, Instant> findUpdatedAt(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String jpql = "SELECT d.id, d.updatedAt FROM Task d WHERE d.id IN :ids";
+
+        return em.createQuery(jpql, Tuple.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .collect(Collectors.toMap(row -> row.get(0, Long.class), row -> row.get(1, Instant.class)));
+    }
+
     @Override
     public List<Task> findWithPagination(int page, int pageSize) {
 
@@ -87,6 +173,180 @@ public class TaskRepo implements BaseDao <Task , Long>{
         return query.getResultList() ;
     }
 
+
+
+    /***
+     *
+     * Filtered and sorted page , built with the Criteria API so every value is a bind parameter
+     * and the sort can only be one of the whitelisted TaskSort attributes
+     */
+    public List<Task> findWithFilter(TaskFilter filter, TaskSort sort, SortDirection direction, int page, int pageSize) {
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> task = query.from(Task.class);
+
+        Function<Expression<?>, Order> order = direction == SortDirection.DESC ? cb::desc : cb::asc;
+
+        List<Order> orders = new ArrayList<>();
+        orders.add(order.apply(task.get(sort.getAttribute())));
+
+        if (sort != TaskSort.ID) {
+            orders.add(order.apply(task.get("id")));
+        }
+
+        query.select(task)
+            .where(filterPredicates(cb, task, filter))
+            .orderBy(orders);
+
+        return em.createQuery(query)
+                .setFirstResult(page * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    public long countWithFilter(TaskFilter filter) {
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+
+        query.select(cb.count(task))
+            .where(filterPredicates(cb, task, filter));
+
+        return em.createQuery(query).getSingleResult();
+    }
+
+    /***
+     *
+     * Next chunk of ids of the filtered set after afterId (null for the first one) , in id order :
+     * a keyset walk over (tenant_id , id) whose cost per chunk does not grow with the position
+     */
+    public List<Long> findIdsWithFilter(TaskFilter filter, Long afterId, int limit) {
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Task> task = query.from(Task.class);
+
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(filterPredicates(cb, task, filter)));
+
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(task.<Long>get("id"), afterId));
+        }
+
+        query.select(task.<Long>get("id"))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.asc(task.get("id")));
+
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static Predicate[] filterPredicates(CriteriaBuilder cb, Root<Task> task, TaskFilter filter) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.getStatus()));
+        }
+
+        if (filter.getPriority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.getPriority()));
+        }
+
+        if (filter.getAssignToUserId() != null) {
+            predicates.add(cb.equal(task.get("assignToUserId"), filter.getAssignToUserId()));
+        }
+
+        if (filter.getEstimateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<Instant>get("estimateDate"), DateUtils.longToInstant(filter.getEstimateFrom())));
+        }
+
+        if (filter.getEstimateTo() != null) {
+            predicates.add(cb.lessThan(task.<Instant>get("estimateDate"), DateUtils.longToInstant(filter.getEstimateTo())));
+        }
+
+        return predicates.toArray(Predicate[]::new);
+    }
+
+
+
+    /***
+     *
+     * Keyset pagination : seeks past the last returned id instead of skipping rows with an offset,
+     * the tenant restriction added by hibernate makes this a range scan on idx_tasks_tenant_id_with_id
+     */
+    public List<Task> findAfterId(Long lastId, int pageSize) {
+
+        String jpql = lastId == null
+                        ? "SELECT d FROM Task d ORDER BY d.id"
+                        : "SELECT d FROM Task d WHERE d.id > :lastId ORDER BY d.id";
+
+        TypedQuery<Task> query = em.createQuery(jpql, Task.class);
+
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+        }
+
+        query.setMaxResults(pageSize);
+
+        return query.getResultList() ;
+    }
+
+    /***
+     *
+     * Full-text search over name and description , backed by the generated search_vector column
+     * and its GIN index (see db.004_tasks_search.yaml). Results are ranked , name matches weigh more.
+     */
+    public List<Task> search(String keyword, int page, int pageSize) {
+
+        String sql = "SELECT t.* FROM tasks t "
+                    + "WHERE t.tenant_id = :tenantId "
+                    + "AND t.search_vector @@ websearch_to_tsquery('english', :keyword) "
+                    + "ORDER BY ts_rank(t.search_vector, websearch_to_tsquery('english', :keyword)) DESC, t.id";
+
+        @SuppressWarnings("unchecked")
+        List<Task> tasks = em.createNativeQuery(sql, Task.class)
+                                .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+                                .setParameter("keyword", keyword)
+                                .setFirstResult(page * pageSize)
+                                .setMaxResults(pageSize)
+                                .getResultList();
+
+        return tasks ;
+    }
+
+    /***
+     *
+     * Streams every task of the tenant through a server-side cursor (fetchSize rows per round trip) ,
+     * each task is detached once consumed so the persistence context never grows
+     */
+    public long scrollAll(int fetchSize, Consumer<Task> consumer) {
+
+        Session session = em.unwrap(Session.class);
+
+        long count = 0;
+
+        try (ScrollableResults<Task> results = session.createSelectionQuery("SELECT d FROM Task d ORDER BY d.id", Task.class)
+                                                    .setFetchSize(fetchSize)
+                                                    .setReadOnly(true)
+                                                    .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            while (results.next()) {
+
+                Task task = results.get();
+
+                consumer.accept(task);
+                session.detach(task);
+
+                count++;
+            }
+        }
+
+        return count ;
+    }
+
     @Override
     public List<Task> insertInBatch(List<Task> entities) {
 
@@ -97,50 +357,98 @@ public class TaskRepo implements BaseDao <Task , Long>{
             return entities ;
         }
 
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
+
         for (int i = 0; i < entities.size(); i++) {
                 
             em.persist(entities.get(i));
+            deltas.taskAdded(entities.get(i));
 
             if (i > 0 && (i + 1) % batchSize == 0) {
-                em.flush();
-                em.clear();
+                flushAndClear();
             }
         }
 
         // Flush and clear the remaining entities that didn't make up a full batch
         if (entities.size() % batchSize != 0) {
-            em.flush();
-            em.clear();
+            flushAndClear();
         }
 
+        taskCounterRepo.applyDeltas(deltas);
+
         return entities ;
     }
 
+    private void flushAndClear() {
+
+        em.flush();
+        flushCounter.increment();
+
+        em.clear();
+        clearCounter.increment();
+    }
+
     @Override
     public int updateInBatch(List<Long> ids, Task entity) {
        
 
         int totalUpdatedRecords = 0 ;
 
-        Query query = DBUtiles.buildJPQLQueryDynamicallyForUpdate(entity, em) ;
+        Query query = DBUtiles.buildJPQLQueryDynamicallyForUpdate(entity, em)
+                        .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier()) ;
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas();
 
 
         for (int i = 0; i < ids.size(); i += batchSize) {
             List<Long> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
     
+            if (TaskCounterDeltas.changesCountedFields(entity)) {
+                lockCountedFields(batch).forEach(previous -> deltas.taskChanged(previous, entity));
+            }
             
             query.setParameter("Ids", batch);
 
             // Execute the update
             int updatedRecords = query.executeUpdate();
             totalUpdatedRecords += updatedRecords;
+
+            taskCache.evict(tenantResolver.resolveCurrentTenantIdentifier(), batch);
     
-            em.flush();
-            em.clear();
+            flushAndClear();
 
         }
 
+        taskCounterRepo.applyDeltas(deltas);
+
         return totalUpdatedRecords ;
     }
+
+
+
+    /***
+     *
+     * Locks the given tasks (FOR UPDATE , in id order) and returns their current status , priority and assignee ,
+     * used to keep the counters exact when rows are deleted or move between buckets
+     */
+    private List<CountedFields> lockCountedFields(List<Long> ids) {
+
+        String sql = "SELECT t.status, t.priority, CAST(t.assign_to_user_id AS varchar) FROM tasks t "
+                    + "WHERE t.tenant_id = :tenantId AND t.id IN (:ids) ORDER BY t.id FOR UPDATE";
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(sql)
+                                    .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+                                    .setParameter("ids", ids)
+                                    .getResultList();
+
+        return rows.stream()
+                .map(row -> new CountedFields(
+                    TaskStatus.valueOf((String) row[0]),
+                    TaskPriority.valueOf((String) row[1]),
+                    UUID.fromString((String) row[2])
+                ))
+                .toList();
+    }
     
 }
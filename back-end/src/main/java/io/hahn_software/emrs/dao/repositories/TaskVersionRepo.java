@@ -0,0 +1,74 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+
+import io.hahn_software.emrs.events.TaskChangedEvent;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+
+
+/***
+ *
+ * Per-tenant version of the tasks , bumped synchronously by every TaskChangedEvent , inside the write transaction
+ * (like the counters) : it moves exactly when a change commits , whatever the commit order of concurrent writers.
+ * Writers of a tenant queue on its row until they commit , as they already do on the counter rows.
+ */
+@Repository
+public class TaskVersionRepo {
+
+
+    @PersistenceContext
+    private EntityManager em ;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver ;
+
+
+    @Autowired
+    public TaskVersionRepo(CurrentTenantIdentifierResolverImpl tenantResolver) {
+        this.tenantResolver = tenantResolver;
+    }
+
+
+
+    @EventListener
+    public void onTaskChanged(TaskChangedEvent event) {
+
+        if (event.ids().isEmpty()) {
+            return ;
+        }
+
+        bump(event.tenantId());
+    }
+
+
+
+    public void bump(UUID tenantId) {
+
+        String sql = "INSERT INTO task_versions (tenant_id, version) VALUES (:tenantId, 1)"
+                    + " ON CONFLICT (tenant_id) DO UPDATE SET version = task_versions.version + 1";
+
+        em.createNativeQuery(sql)
+            .setParameter("tenantId", tenantId)
+            .executeUpdate();
+    }
+
+
+
+    /** Version of the current tenant , 0 until its first task write */
+    public long version() {
+
+        String sql = "SELECT COALESCE(MAX(v.version), 0) FROM task_versions v WHERE v.tenant_id = :tenantId";
+
+        Number version = (Number) em.createNativeQuery(sql)
+                                .setParameter("tenantId", tenantResolver.resolveCurrentTenantIdentifier())
+                                .getSingleResult();
+
+        return version.longValue();
+    }
+}
@@ -1,5 +1,11 @@
 package io.hahn_software.emrs.dao.repositories;
 
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.hibernate.Session;
 import org.springframework.stereotype.Repository;
 
 import io.hahn_software.emrs.entities.UserLog;
@@ -11,6 +17,11 @@ import jakarta.transaction.Transactional;
 public class UserLogRepo {
     
 
+    private static final String INSERT_SQL = "INSERT INTO user_logs "
+                                + "(user_id, tenant_id, username, operation, method, ip_address, status, created_at, updated_at) "
+                                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+
     @PersistenceContext
     private EntityManager em;
 
@@ -27,4 +38,40 @@ public class UserLogRepo {
     public void update(UserLog userLog) {
         em.merge(userLog);
     }
+
+
+
+    /***
+     *
+     * Writes the given logs as one JDBC batch in its own transaction ,
+     * rewritten into multi-row inserts by the driver (reWriteBatchedInserts=true)
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void insertInBatch(List<UserLog> userLogs) {
+
+        if (userLogs == null || userLogs.isEmpty()) {
+            return ;
+        }
+
+        em.unwrap(Session.class).doWork(connection -> {
+
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+
+                for (UserLog userLog : userLogs) {
+                    statement.setString(1, userLog.getUserId());
+                    statement.setObject(2, userLog.getTenantId());
+                    statement.setString(3, userLog.getUsername());
+                    statement.setString(4, userLog.getOperation());
+                    statement.setString(5, userLog.getMethod());
+                    statement.setString(6, userLog.getIpAddress());
+                    statement.setString(7, userLog.getStatus());
+                    statement.setObject(8, OffsetDateTime.ofInstant(userLog.getCreatedAt(), ZoneOffset.UTC));
+                    statement.setObject(9, OffsetDateTime.ofInstant(userLog.getUpdatedAt(), ZoneOffset.UTC));
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+            }
+        });
+    }
 }
@@ -0,0 +1,42 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResult {
+
+
+    /**
+     * error of one element of the request body , index is the 0-based position of the element
+     */
+    public record RowError(long index, String message) {}
+
+
+    /**
+     * a chunk written in one transaction : the elements between firstIndex and lastIndex that are not listed in errors ,
+     * in request order , were given ascending ids between firstId and lastId (not necessarily contiguous)
+     */
+    public record ImportedChunk(long firstIndex, long lastIndex, int imported, long firstId, long lastId) {}
+
+
+    private long received;
+
+    private long imported;
+
+    /**
+     * one entry per written chunk , the response grows with the number of chunks and errors , not with the import
+     */
+    private List<ImportedChunk> chunks;
+
+    private List<RowError> errors;
+}
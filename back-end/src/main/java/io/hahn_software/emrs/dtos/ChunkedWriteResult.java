@@ -0,0 +1,41 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.List;
+
+import io.hahn_software.emrs.enums.WriteStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChunkedWriteResult {
+
+
+    /**
+     * one transaction , items [from , from + size) of the request. affected is the number of rows it wrote
+     */
+    public record ChunkResult(int chunk, int from, int size, WriteStatus status, long affected, String error) {}
+
+
+    /**
+     * one item of the request , index is its 0-based position. id is the created (or updated) task , null when it failed
+     */
+    public record ItemResult(long index, Long id, WriteStatus status, String error) {}
+
+
+    private long received;
+
+    private long committed;
+
+    private long failed;
+
+    private List<ChunkResult> chunks;
+
+    private List<ItemResult> items;
+}
@@ -0,0 +1,40 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.List;
+
+import io.hahn_software.emrs.enums.PatchOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatchResult {
+
+
+    /**
+     * outcome of one element of the request body , index is the 0-based position of the element
+     */
+    public record ElementResult(long index, Long id, PatchOutcome outcome) {}
+
+
+    private long received;
+
+    private long updated;
+
+    private long unchanged;
+
+    private long notFound;
+
+    private long duplicates;
+
+    /**
+     * one result per element , in request order
+     */
+    private List<ElementResult> results;
+}
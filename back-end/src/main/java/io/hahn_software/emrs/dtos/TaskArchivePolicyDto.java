@@ -0,0 +1,25 @@
+package io.hahn_software.emrs.dtos;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskArchivePolicyDto {
+
+    /** DONE tasks not updated for this many days are archived , 0 turns archiving off for the tenant */
+    @NotNull(message = "doneAgeDays is required")
+    @Min(value = 0 , message = "doneAgeDays must be positive or 0")
+    private Integer doneAgeDays;
+
+    /** false when the tenant has no policy of its own and the default applies */
+    private boolean custom;
+}
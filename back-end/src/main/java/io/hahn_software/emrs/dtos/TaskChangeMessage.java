@@ -0,0 +1,25 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+/***
+ *
+ * Data of a /tasks/stream event : the changed ids , or only their number when a burst was coalesced
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskChangeMessage {
+
+    private List<Long> ids;
+
+    private long count;
+}
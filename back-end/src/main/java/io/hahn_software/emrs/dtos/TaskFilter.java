@@ -0,0 +1,69 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskFilterField;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+/***
+ *
+ * Optional filters of the task listing , the conditions that are set are combined with AND
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskFilter {
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    private UUID assignToUserId;
+
+    @Parameter(description = "Tasks due at or after this date (epoch millis)")
+    private Long estimateFrom;
+
+    @Parameter(description = "Tasks due strictly before this date (epoch millis)")
+    private Long estimateTo;
+
+
+    public boolean hasConditions() {
+        return status != null
+            || priority != null
+            || assignToUserId != null
+            || estimateFrom != null
+            || estimateTo != null;
+    }
+
+
+    /** The equality conditions that are set , the estimate date range is not one of them */
+    public Set<TaskFilterField> equalityFields() {
+
+        Set<TaskFilterField> fields = EnumSet.noneOf(TaskFilterField.class);
+
+        if (status != null) {
+            fields.add(TaskFilterField.STATUS);
+        }
+
+        if (priority != null) {
+            fields.add(TaskFilterField.PRIORITY);
+        }
+
+        if (assignToUserId != null) {
+            fields.add(TaskFilterField.ASSIGNEE);
+        }
+
+        return fields;
+    }
+}
@@ -0,0 +1,51 @@
+package io.hahn_software.emrs.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskJobStatus;
+import io.hahn_software.emrs.enums.TaskJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskJobDto {
+
+
+    private UUID id;
+
+    private TaskJobType type;
+
+    private TaskJobStatus status;
+
+    private TaskFilter filter;
+
+    /**
+     * tasks matching the filter when the job started
+     */
+    private long total;
+
+    /**
+     * tasks visited so far , and how many of them were deleted / updated
+     */
+    private long processed;
+
+    private long affected;
+
+    private long chunks;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+}
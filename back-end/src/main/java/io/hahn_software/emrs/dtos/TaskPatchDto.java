@@ -0,0 +1,43 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+/***
+ *
+ * One element of PATCH /tasks/items : the id of the task and the fields to change , null fields are left as they are
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskPatchDto {
+
+
+    @NotNull(message = "id is required")
+    private Long id;
+
+    /** refused : name is the unique key of the task within the tenant */
+    private String name;
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    private String description;
+
+    private Long estimateDate;
+
+    private UUID assignToUserId;
+
+    private String userName;
+}
@@ -4,6 +4,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.hahn_software.emrs.enums.TaskPriority;
 import io.hahn_software.emrs.enums.TaskStatus;
 import lombok.AllArgsConstructor;
@@ -38,4 +40,8 @@ public class TaskResponseDto {
     private Long createdAt;
 
     private Long updatedAt;
+
+    /** Set only for tasks read from the archive (includeArchived) */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long archivedAt;
 }
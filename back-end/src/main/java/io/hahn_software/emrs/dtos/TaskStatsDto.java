@@ -0,0 +1,28 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.Map;
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskStatsDto {
+
+    private long total;
+
+    private Map<TaskStatus, Long> byStatus;
+
+    private Map<TaskPriority, Long> byPriority;
+
+    private Map<UUID, Long> byAssignee;
+}
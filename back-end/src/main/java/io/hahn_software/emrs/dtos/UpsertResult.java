@@ -0,0 +1,39 @@
+package io.hahn_software.emrs.dtos;
+
+import java.util.List;
+
+import io.hahn_software.emrs.enums.UpsertOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpsertResult {
+
+
+    /**
+     * outcome of one element of the request body , index is the 0-based position of the element.
+     * SKIPPED elements carry the id of the existing task
+     */
+    public record ElementResult(long index, Long id, UpsertOutcome outcome) {}
+
+
+    private long received;
+
+    private long created;
+
+    private long updated;
+
+    private long skipped;
+
+    /**
+     * one result per element , in request order
+     */
+    private List<ElementResult> results;
+}
@@ -0,0 +1,81 @@
+package io.hahn_software.emrs.entities;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+
+/***
+ *
+ * Cold copy of a DONE task moved out of the tasks table by the TaskArchiver , read only.
+ * Keeps the id it had as a hot task.
+ */
+@Entity
+@Table(
+        name = "tasks_archive" ,
+        indexes = {
+            @Index(columnList = "tenantId, id", name = "idx_tasks_archive_tenant_id_with_id")
+        }
+)
+
+@Data  @EqualsAndHashCode(callSuper = false)
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedTask extends AbstractBaseEntity {
+
+    @Id
+    private Long id ;
+
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private TaskStatus status;
+
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false)
+    private TaskPriority priority;
+
+
+    @Column(name = "description")
+    private String description;
+
+
+    @Column(name = "estimate_date")
+    private Instant estimateDate;
+
+
+    @Column(name = "assign_to_user_id", nullable = false)
+    private UUID assignToUserId;
+
+
+    @Column(name = "user_name", nullable = false)
+    private String userName;
+
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt ;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt ;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt ;
+}
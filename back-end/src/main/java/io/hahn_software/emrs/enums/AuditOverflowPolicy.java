@@ -0,0 +1,29 @@
+package io.hahn_software.emrs.enums;
+
+
+/***
+ *
+ * What the audit log pipeline does when its queue is full
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * the caller waits for free space in the queue (backpressure) , nothing is dropped
+     */
+    BLOCK ,
+
+    /**
+     * the caller writes its own audit row synchronously , in a separate transaction
+     */
+    CALLER_RUNS ,
+
+    /**
+     * the new audit row is dropped and counted
+     */
+    DROP_NEWEST ,
+
+    /**
+     * the oldest queued audit row is dropped and counted to make room for the new one
+     */
+    DROP_OLDEST
+}
@@ -0,0 +1,24 @@
+package io.hahn_software.emrs.enums;
+
+
+/***
+ *
+ * Dimensions of the per-tenant task counters , each dimension is split in buckets (one per value)
+ */
+public enum CounterDimension {
+
+    /**
+     * number of tasks per TaskStatus , the sum of its buckets is the tenant total
+     */
+    STATUS ,
+
+    /**
+     * number of tasks per TaskPriority
+     */
+    PRIORITY ,
+
+    /**
+     * number of tasks per assignee (assignToUserId)
+     */
+    ASSIGNEE
+}
@@ -0,0 +1,35 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum ExportFormat {
+
+    /**
+     * one JSON document per line
+     */
+    NDJSON("application/x-ndjson", "ndjson") ,
+
+    /**
+     * comma separated values with a header line
+     */
+    CSV("text/csv", "csv");
+
+
+    private final String contentType;
+
+    private final String extension;
+
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,11 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum PatchOutcome {
+    UPDATED,
+    // the task already had the requested values , it was not written
+    UNCHANGED,
+    NOT_FOUND,
+    // the id already appears earlier in the request , only its first occurrence is applied
+    DUPLICATE
+}
@@ -0,0 +1,9 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ARCHIVED
+}
@@ -0,0 +1,13 @@
+package io.hahn_software.emrs.enums;
+
+
+/***
+ *
+ * Equality conditions of the task listing filter , the combination that is set (with the sort)
+ * decides which index serves a filtered page (see TaskSort)
+ */
+public enum TaskFilterField {
+    STATUS,
+    PRIORITY,
+    ASSIGNEE
+}
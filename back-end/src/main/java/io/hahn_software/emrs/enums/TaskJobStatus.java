@@ -0,0 +1,15 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum TaskJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED;
+
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == CANCELLED || this == FAILED;
+    }
+}
@@ -0,0 +1,7 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum TaskJobType {
+    DELETE,
+    UPDATE
+}
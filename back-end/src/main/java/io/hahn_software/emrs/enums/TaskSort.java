@@ -0,0 +1,67 @@
+package io.hahn_software.emrs.enums;
+
+import static io.hahn_software.emrs.enums.TaskFilterField.ASSIGNEE;
+import static io.hahn_software.emrs.enums.TaskFilterField.PRIORITY;
+import static io.hahn_software.emrs.enums.TaskFilterField.STATUS;
+
+import java.util.Set;
+
+import io.hahn_software.emrs.dtos.TaskFilter;
+
+
+/***
+ *
+ * Sort keys accepted by the task listing. Ties are broken by id so pages are stable.
+ * Each key lists the equality filter combinations it is indexed for : a (tenant_id , filters , key , id) index
+ * (see db.005_tasks_filter_indexes.yaml) returns the page in order without sorting the filtered set ,
+ * the other combinations are rejected. The estimate date range can be added to any of them.
+ */
+public enum TaskSort {
+
+    ID("id",
+        Set.of(),
+        Set.of(STATUS),
+        Set.of(PRIORITY),
+        Set.of(ASSIGNEE),
+        Set.of(STATUS, PRIORITY),
+        Set.of(ASSIGNEE, STATUS),
+        Set.of(ASSIGNEE, PRIORITY),
+        Set.of(ASSIGNEE, STATUS, PRIORITY)
+    ) ,
+
+    ESTIMATE_DATE("estimateDate",
+        Set.of(),
+        Set.of(STATUS),
+        Set.of(PRIORITY),
+        Set.of(ASSIGNEE, STATUS, PRIORITY)
+    ) ,
+
+    UPDATED_AT("updatedAt",
+        Set.of(),
+        Set.of(STATUS)
+    );
+
+
+    private final String attribute;
+
+    private final Set<Set<TaskFilterField>> indexedFilters;
+
+
+    @SafeVarargs
+    TaskSort(String attribute, Set<TaskFilterField>... indexedFilters) {
+        this.attribute = attribute;
+        this.indexedFilters = Set.of(indexedFilters);
+    }
+
+
+    /** Name of the sorted Task attribute */
+    public String getAttribute() {
+        return attribute;
+    }
+
+
+    /** Whether an index serves this sort with the equality conditions set on the filter */
+    public boolean isIndexedFor(TaskFilter filter) {
+        return indexedFilters.contains(filter.equalityFields());
+    }
+}
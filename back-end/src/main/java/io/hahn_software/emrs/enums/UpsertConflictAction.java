@@ -0,0 +1,10 @@
+package io.hahn_software.emrs.enums;
+
+
+/**
+ * What an upsert does with an element whose name already exists in the tenant
+ */
+public enum UpsertConflictAction {
+    UPDATE,
+    NOTHING
+}
@@ -0,0 +1,8 @@
+package io.hahn_software.emrs.enums;
+
+
+public enum UpsertOutcome {
+    CREATED,
+    UPDATED,
+    SKIPPED
+}
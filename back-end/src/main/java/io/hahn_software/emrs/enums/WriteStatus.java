@@ -0,0 +1,11 @@
+package io.hahn_software.emrs.enums;
+
+
+/**
+ * Outcome of a chunk (or of one of its items) of a chunked bulk write
+ */
+public enum WriteStatus {
+    COMMITTED,
+    PARTIALLY_COMMITTED,
+    FAILED
+}
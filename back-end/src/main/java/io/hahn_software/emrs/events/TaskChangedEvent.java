@@ -0,0 +1,19 @@
+package io.hahn_software.emrs.events;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.hahn_software.emrs.enums.TaskChangeType;
+
+
+
+/***
+ *
+ * Published by the write paths inside their transaction , delivered to listeners once it commits
+ */
+public record TaskChangedEvent(UUID tenantId, TaskChangeType type, List<Long> ids) {
+
+    public TaskChangedEvent {
+        ids = List.copyOf(ids);
+    }
+}
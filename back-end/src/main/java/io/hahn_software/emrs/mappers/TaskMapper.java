@@ -7,8 +7,10 @@ import java.util.List;
 
 import org.springframework.stereotype.Component;
 
+import io.hahn_software.emrs.dtos.TaskPatchDto;
 import io.hahn_software.emrs.dtos.TaskRequestDto;
 import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.entities.ArchivedTask;
 import io.hahn_software.emrs.entities.Task;
 import io.hahn_software.emrs.utils.DateUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -55,6 +57,23 @@ public class TaskMapper {
 
 
 
+    /** A patch as a partial Task : the id and the fields to change , the others stay null */
+    public Task toTask(TaskPatchDto patch) {
+
+        return Task.builder()
+                .id(patch.getId())
+                .name(patch.getName())
+                .status(patch.getStatus())
+                .priority(patch.getPriority())
+                .description(patch.getDescription())
+                .estimateDate(DateUtils.longToInstant(patch.getEstimateDate()))
+                .assignToUserId(patch.getAssignToUserId())
+                .userName(patch.getUserName())
+                .build();
+    }
+
+
+
     public TaskResponseDto fromTask(Task task) {
 
 
@@ -72,5 +91,25 @@ public class TaskMapper {
                 .build();
     }
 
+
+
+    public TaskResponseDto fromArchivedTask(ArchivedTask task) {
+
+
+        return TaskResponseDto.builder()
+                .id(task.getId())
+                .name(task.getName())
+                .status(task.getStatus())
+                .priority(task.getPriority())
+                .description(task.getDescription())
+                .estimateDate(DateUtils.instantToLong(task.getEstimateDate()))
+                .assignToUserId(task.getAssignToUserId())
+                .userName(task.getUserName())
+                .createdAt(DateUtils.instantToLong(task.getCreatedAt()))
+                .updatedAt(DateUtils.instantToLong(task.getUpdatedAt()))
+                .archivedAt(DateUtils.instantToLong(task.getArchivedAt()))
+                .build();
+    }
+
     
 }
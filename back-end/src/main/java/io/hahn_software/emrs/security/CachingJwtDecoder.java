@@ -0,0 +1,180 @@
+package io.hahn_software.emrs.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Bounded cache of verified tokens in front of the Nimbus decoder : a token seen before skips the RSA signature check
+ * and the claims parsing. Entries are keyed by the SHA-256 of the token (the raw token is not a key) and expire at the
+ * token's exp at the latest , they also keep the authorities and the tenant so that the authentication converter
+ * does not rebuild them on every request (see RolesGrantedAuthoritiesConverter).
+ */
+@Slf4j
+public class CachingJwtDecoder implements JwtDecoder {
+
+
+    public record VerifiedJwt(Jwt jwt, Collection<GrantedAuthority> authorities, String tenantId) {}
+
+
+    private final JwtDecoder delegate;
+
+    private final RolesGrantedAuthoritiesConverter authoritiesConverter;
+
+    private final Cache<String, VerifiedJwt> cache;
+
+    private final Timer verificationTimer;
+
+
+
+    public CachingJwtDecoder(
+        JwtDecoder delegate,
+        RolesGrantedAuthoritiesConverter authoritiesConverter,
+        MeterRegistry meterRegistry,
+        long maximumSize,
+        Duration maxTimeToLive
+    ) {
+        this.delegate = delegate;
+        this.authoritiesConverter = authoritiesConverter;
+
+        this.cache = Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new UntilTokenExpiry(maxTimeToLive))
+                        .recordStats()
+                        .build();
+
+        this.verificationTimer = Timer.builder("jwt.verification")
+                                    .description("Signature check and claims parsing of the tokens missing from the cache")
+                                    .register(meterRegistry);
+
+        // cache.gets{result=hit|miss} ... tagged cache=jwt
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+
+        Gauge.builder("jwt.cache.hit.ratio", cache, c -> c.stats().hitRate())
+            .description("Share of the requests whose token was already verified")
+            .register(meterRegistry);
+
+        log.info("JWT cache ready , maximum size : {} , max time to live : {} ✅", maximumSize, maxTimeToLive);
+    }
+
+
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+
+        String key = hash(token);
+
+        VerifiedJwt verified = cache.getIfPresent(key);
+
+        if (verified != null && !isExpired(verified.jwt())) {
+            return verified.jwt();
+        }
+
+        Timer.Sample sample = Timer.start();
+
+        Jwt jwt;
+
+        try {
+            jwt = delegate.decode(token);
+        } finally {
+            sample.stop(verificationTimer);
+        }
+
+        // tokens without exp are verified every time
+        if (jwt.getExpiresAt() != null) {
+            cache.put(key, new VerifiedJwt(
+                jwt,
+                authoritiesConverter.realmAuthorities(jwt),
+                RolesGrantedAuthoritiesConverter.tenantIdOf(jwt)
+            ));
+        }
+
+        return jwt;
+    }
+
+
+
+    /***
+     *
+     * The cached entry of a token this decoder returned , null when it is not (or no longer) cached.
+     * Does not count as a cache access in the hit ratio
+     */
+    public VerifiedJwt verified(Jwt jwt) {
+
+        VerifiedJwt verified = cache.policy().getIfPresentQuietly(hash(jwt.getTokenValue()));
+
+        return verified != null && verified.jwt() == jwt ? verified : null;
+    }
+
+
+
+    private static boolean isExpired(Jwt jwt) {
+        return jwt.getExpiresAt() != null && !jwt.getExpiresAt().isAfter(Instant.now());
+    }
+
+
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+
+
+    /***
+     *
+     * An entry lives until the token expires , and never longer than maxTimeToLive
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedJwt> {
+
+        private final long maxNanos;
+
+        private UntilTokenExpiry(Duration maxTimeToLive) {
+            this.maxNanos = maxTimeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt value, long currentTime) {
+
+            long untilExpiry = Duration.between(Instant.now(), value.jwt().getExpiresAt()).toNanos();
+
+            return Math.max(0, Math.min(untilExpiry, maxNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -14,8 +14,17 @@ public class JwtConverter extends JwtAuthenticationConverter {
     public static final String AUTHORITY_PREFIX = "ROLE_";
 
     public JwtConverter() {
+        this(null);
+    }
+
+
+    /**
+     * verifiedJwts : the decoder in use , its cached tokens skip the extraction of the authorities
+     */
+    public JwtConverter(CachingJwtDecoder verifiedJwts) {
         RolesGrantedAuthoritiesConverter grantedAuthoritiesConverter = new RolesGrantedAuthoritiesConverter();
         grantedAuthoritiesConverter.setAuthorityPrefix(AUTHORITY_PREFIX);
+        grantedAuthoritiesConverter.setVerifiedJwts(verifiedJwts);
 
         setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
         setPrincipalClaimName(PRINCIPAL_CLAIM_NAME);
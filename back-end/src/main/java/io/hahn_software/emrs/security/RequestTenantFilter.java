@@ -0,0 +1,40 @@
+package io.hahn_software.emrs.security;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.hahn_software.emrs.utils.RequestTenant;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+
+
+/***
+ *
+ * Clears the tenant once the request is done , a pooled thread never starts a request with the previous one's tenant
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTenantFilter extends OncePerRequestFilter {
+
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTenant.clear();
+        }
+    }
+}
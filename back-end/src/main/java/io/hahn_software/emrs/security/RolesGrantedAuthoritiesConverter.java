@@ -1,6 +1,7 @@
 package io.hahn_software.emrs.security;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -13,8 +14,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.util.Assert;
 
-import com.trackswiftly.utils.base.utils.TenantContext;
-
+import io.hahn_software.emrs.utils.RequestTenant;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,6 +24,8 @@ import lombok.extern.slf4j.Slf4j;
 public class RolesGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>>{
     private String authorityPrefix = "";
 
+    private CachingJwtDecoder verifiedJwts;
+
 
     public RolesGrantedAuthoritiesConverter setAuthorityPrefix(String authorityPrefix) {
         Assert.notNull(authorityPrefix, "authorityPrefix cannot be null");
@@ -31,14 +33,30 @@ public class RolesGrantedAuthoritiesConverter implements Converter<Jwt, Collecti
         return this;
     }
 
+
+    /**
+     * Tokens verified by this decoder come with their authorities and tenant already extracted
+     */
+    public RolesGrantedAuthoritiesConverter setVerifiedJwts(CachingJwtDecoder verifiedJwts) {
+        this.verifiedJwts = verifiedJwts;
+        return this;
+    }
+
     
     @Override
     public Collection<GrantedAuthority> convert(Jwt source) {
+
+        CachingJwtDecoder.VerifiedJwt verified = verifiedJwts != null ? verifiedJwts.verified(source) : null;
+
+        if (verified != null) {
+            setTenantId(verified.tenantId());
+            return verified.authorities();
+        }
         
         Set<GrantedAuthority> authorities = new HashSet<>();
         
         // Extract organization ID and set tenant context
-        extractAndSetTenantId(source);
+        setTenantId(tenantIdOf(source));
         
         // Extract roles from realm_access
         extractRealmRoles(source, authorities);
@@ -49,8 +67,32 @@ public class RolesGrantedAuthoritiesConverter implements Converter<Jwt, Collecti
     }
 
 
+    /**
+     * The realm roles of the token as authorities , without touching the tenant context
+     */
+    public Collection<GrantedAuthority> realmAuthorities(Jwt jwt) {
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+
+        extractRealmRoles(jwt, authorities);
 
-    private void extractAndSetTenantId(Jwt jwt) {
+        return Collections.unmodifiableSet(authorities);
+    }
+
+
+
+    private static void setTenantId(String tenantId) {
+        if (Objects.nonNull(tenantId)) {
+            RequestTenant.set(tenantId);
+        }
+    }
+
+
+
+    /**
+     * Id of the first organization of the token , null when it has none
+     */
+    public static String tenantIdOf(Jwt jwt) {
         Map<String, Object> organization = jwt.getClaim("organization");
         if (Objects.nonNull(organization) && !organization.isEmpty()) {
             // Get the first organization entry
@@ -59,11 +101,10 @@ public class RolesGrantedAuthoritiesConverter implements Converter<Jwt, Collecti
             @SuppressWarnings("unchecked")
             Map<String, Object> orgDetails = (Map<String, Object>) firstOrgEntry.getValue();
             
-            String orgId = (String) orgDetails.get("id");
-            if (Objects.nonNull(orgId)) {
-                TenantContext.setTenantId(orgId);
-            }
+            return (String) orgDetails.get("id");
         }
+
+        return null;
     }
 
 
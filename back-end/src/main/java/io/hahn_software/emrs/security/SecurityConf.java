@@ -20,10 +20,13 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 
 import org.springframework.beans.factory.annotation.Value;
 
 import java.security.KeyFactory;
+import java.time.Duration;
 import java.util.Base64;
 
 
@@ -67,13 +70,15 @@ public class SecurityConf {
 
 
     @Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity http ) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity http , CachingJwtDecoder jwtDecoder ) throws Exception {
 
 
         http
         .cors(cors -> cors.configurationSource(corsConfigurationSource))
         .csrf(csrf -> csrf.disable())
         .authorizeHttpRequests( authorize  ->  {
+                // statement shapes of the service , not for the public part of /actuator
+                authorize.requestMatchers("/actuator/sqlstats", "/actuator/sqlstats/**").hasAuthority("ROLE_ADMIN") ;
                 authorize.requestMatchers(AUTH_WHITELIST).permitAll() ;
                 authorize.anyRequest().authenticated() ;
             }
@@ -81,8 +86,8 @@ public class SecurityConf {
         .oauth2ResourceServer( oauth2 ->
             oauth2.jwt( jwt ->
                 {
-                    jwt.jwtAuthenticationConverter(new JwtConverter()) ;
-                    jwt.decoder(jwtDecoder()) ;
+                    jwt.jwtAuthenticationConverter(new JwtConverter(jwtDecoder)) ;
+                    jwt.decoder(jwtDecoder) ;
 
                 }
             )
@@ -100,8 +105,28 @@ public class SecurityConf {
 
 
 
+    /***
+     *
+     * Verified tokens are cached until they expire (security.jwt.cache.*) , see CachingJwtDecoder
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder(
+        MeterRegistry meterRegistry,
+        @Value("${security.jwt.cache.maximum-size:10000}") long maximumSize,
+        @Value("${security.jwt.cache.max-time-to-live:10m}") Duration maxTimeToLive
+    ) {
+        return new CachingJwtDecoder(
+            nimbusJwtDecoder(),
+            new RolesGrantedAuthoritiesConverter().setAuthorityPrefix(JwtConverter.AUTHORITY_PREFIX),
+            meterRegistry,
+            maximumSize,
+            maxTimeToLive
+        );
+    }
+
+
+
+    private JwtDecoder nimbusJwtDecoder() {
         try {
                                     
             byte[] encoded = Base64.getDecoder().decode(publicKeyPEM);
@@ -0,0 +1,175 @@
+package io.hahn_software.emrs.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.trackswiftly.utils.dtos.PageDTO;
+
+import io.hahn_software.emrs.dao.repositories.TaskArchiveRepo;
+import io.hahn_software.emrs.dtos.TaskArchivePolicyDto;
+import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.enums.TaskChangeType;
+import io.hahn_software.emrs.events.TaskChangedEvent;
+import io.hahn_software.emrs.mappers.TaskMapper;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.ETagUtils;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Hot / cold tiering of the tasks : the archive batches run by the TaskArchiver , the archive read paths
+ * and the per-tenant archive policy. Regular listings , counters and stats only cover the hot tasks ,
+ * the archive is read when explicitly asked for.
+ */
+@Slf4j
+@Service
+@Transactional
+public class TaskArchiveService {
+
+
+    private final TaskArchiveRepo taskArchiveRepo;
+
+    private final TaskService taskService;
+
+    private final TaskMapper taskMapper;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int defaultDoneAgeDays;
+
+
+    @Autowired
+    public TaskArchiveService(
+        TaskArchiveRepo taskArchiveRepo,
+        TaskService taskService,
+        TaskMapper taskMapper,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${tasks.archive.default-done-age-days:365}") int defaultDoneAgeDays
+    ) {
+        this.taskArchiveRepo = taskArchiveRepo;
+        this.taskService = taskService;
+        this.taskMapper = taskMapper;
+        this.tenantResolver = tenantResolver;
+        this.eventPublisher = eventPublisher;
+        this.defaultDoneAgeDays = defaultDoneAgeDays;
+    }
+
+
+
+    /***
+     *
+     * One archive batch of the current tenant , in its own transaction so row locks are held for a single batch only
+     */
+    public List<Long> archiveBatch(Instant cutoff, int batchSize) {
+
+        List<Long> ids = taskArchiveRepo.archiveBatch(cutoff, batchSize);
+
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(
+                new TaskChangedEvent(tenantResolver.resolveCurrentTenantIdentifier(), TaskChangeType.ARCHIVED, ids)
+            );
+        }
+
+        return ids;
+    }
+
+
+
+    /***
+     *
+     * Tasks of the given ids in request order , hot tasks from the cache / tasks table ,
+     * the ids not found there are looked up in the archive when includeArchived is set
+     */
+    public List<TaskResponseDto> findEntities(List<Long> ids, boolean includeArchived) {
+
+        List<TaskResponseDto> hot = taskService.findEntities(ids);
+
+        if (!includeArchived || ids == null || hot.size() == ids.size()) {
+            return hot;
+        }
+
+        Set<Long> found = hot.stream().map(TaskResponseDto::getId).collect(Collectors.toSet());
+
+        List<Long> missingIds = ids.stream().filter(id -> !found.contains(id)).distinct().toList();
+
+        Map<Long, TaskResponseDto> byId = taskArchiveRepo.findByIds(missingIds).stream()
+                                            .map(taskMapper::fromArchivedTask)
+                                            .collect(Collectors.toMap(TaskResponseDto::getId, Function.identity()));
+
+        hot.forEach(task -> byId.put(task.getId(), task));
+
+        List<TaskResponseDto> tasks = new ArrayList<>(byId.size());
+
+        ids.stream().distinct().map(byId::get).filter(task -> task != null).forEach(tasks::add);
+
+        return tasks;
+    }
+
+
+
+    /***
+     *
+     * Archived rows never change , a task moving to the archive changes the hot version already
+     */
+    public String findETag(List<Long> ids, boolean includeArchived) {
+
+        String eTag = taskService.findETag(ids);
+
+        return includeArchived ? ETagUtils.weak(eTag, "archived") : eTag;
+    }
+
+
+
+    public PageDTO<TaskResponseDto> pageArchived(int page, int pageSize) {
+
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page and pageSize must be positive values");
+        }
+
+        List<TaskResponseDto> content = taskArchiveRepo.findWithPagination(page, pageSize).stream()
+                                            .map(taskMapper::fromArchivedTask)
+                                            .toList();
+
+        long totalElements = taskArchiveRepo.count();
+
+        int totalPages = (int) Math.ceil((double) totalElements / pageSize);
+
+        return new PageDTO<>(content, page, pageSize, totalElements, totalPages);
+    }
+
+
+
+    public TaskArchivePolicyDto policy() {
+
+        return taskArchiveRepo.policy()
+                .map(days -> new TaskArchivePolicyDto(days, true))
+                .orElseGet(() -> new TaskArchivePolicyDto(defaultDoneAgeDays, false));
+    }
+
+
+
+    public TaskArchivePolicyDto savePolicy(TaskArchivePolicyDto policy) {
+
+        taskArchiveRepo.savePolicy(policy.getDoneAgeDays());
+
+        log.info("Archive age of tenant {} set to {} days ✅", tenantResolver.resolveCurrentTenantIdentifier(), policy.getDoneAgeDays());
+
+        return new TaskArchivePolicyDto(policy.getDoneAgeDays(), true);
+    }
+}
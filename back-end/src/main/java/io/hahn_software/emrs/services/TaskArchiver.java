@@ -0,0 +1,126 @@
+package io.hahn_software.emrs.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.hahn_software.emrs.dao.repositories.TaskArchiveRepo;
+import io.hahn_software.emrs.utils.RequestTenant;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Background move of the DONE tasks older than their tenant's archive age from tasks to tasks_archive.
+ * Tenants are taken one at a time and their tasks moved in small batches , each batch its own short transaction ,
+ * so the archiver never holds locks for long and concurrent writes on the same tasks are skipped , not waited for.
+ * A run stops a tenant after tasks.archive.max-batches-per-tenant batches , the rest waits for the next run.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "tasks.archive.enabled", havingValue = "true")
+public class TaskArchiver {
+
+
+    private final TaskArchiveService taskArchiveService;
+
+    private final TaskArchiveRepo taskArchiveRepo;
+
+    private final Counter movedCounter;
+
+    private final int batchSize;
+
+    private final int maxBatchesPerTenant;
+
+    private final int defaultDoneAgeDays;
+
+
+
+    @Autowired
+    public TaskArchiver(
+        TaskArchiveService taskArchiveService,
+        TaskArchiveRepo taskArchiveRepo,
+        MeterRegistry meterRegistry,
+        @Value("${tasks.archive.batch-size:500}") int batchSize,
+        @Value("${tasks.archive.max-batches-per-tenant:20}") int maxBatchesPerTenant,
+        @Value("${tasks.archive.default-done-age-days:365}") int defaultDoneAgeDays
+    ) {
+        this.taskArchiveService = taskArchiveService;
+        this.taskArchiveRepo = taskArchiveRepo;
+        this.movedCounter = meterRegistry.counter("tasks.archive.moved");
+        this.batchSize = batchSize;
+        this.maxBatchesPerTenant = maxBatchesPerTenant;
+        this.defaultDoneAgeDays = defaultDoneAgeDays;
+
+        log.info("Task archiver ready , batch size : {} , default age : {} days ✅", batchSize, defaultDoneAgeDays);
+    }
+
+
+
+    @Scheduled(
+        initialDelayString = "${tasks.archive.initial-delay:PT1M}",
+        fixedDelayString = "${tasks.archive.interval:PT10M}"
+    )
+    public void archive() {
+
+        Map<UUID, Integer> policies = taskArchiveRepo.policies();
+
+        for (UUID tenantId : taskArchiveRepo.tenantsWithDoneTasks()) {
+
+            int doneAgeDays = policies.getOrDefault(tenantId, defaultDoneAgeDays);
+
+            if (doneAgeDays <= 0) {
+                continue ;
+            }
+
+            try {
+                archive(tenantId, Instant.now().minus(Duration.ofDays(doneAgeDays)));
+            } catch (RuntimeException e) {
+                // one failing tenant must not stop the others , its tasks are retried next run
+                log.error("Archiving the tasks of tenant {} failed : {}", tenantId, e.getMessage(), e);
+            }
+        }
+    }
+
+
+
+    private void archive(UUID tenantId, Instant cutoff) {
+
+        RequestTenant.set(tenantId.toString());
+
+        try {
+
+            long moved = 0;
+
+            for (int batch = 0; batch < maxBatchesPerTenant; batch++) {
+
+                List<Long> ids = taskArchiveService.archiveBatch(cutoff, batchSize);
+
+                moved += ids.size();
+                movedCounter.increment(ids.size());
+
+                if (ids.size() < batchSize) {
+                    break ;
+                }
+            }
+
+            if (moved > 0) {
+                log.info("Archived {} DONE tasks of tenant {} older than {} ✅", moved, tenantId, cutoff);
+            }
+
+        } finally {
+            RequestTenant.clear();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package io.hahn_software.emrs.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import io.hahn_software.emrs.dtos.ChunkedWriteResult;
+import io.hahn_software.emrs.dtos.ChunkedWriteResult.ChunkResult;
+import io.hahn_software.emrs.dtos.ChunkedWriteResult.ItemResult;
+import io.hahn_software.emrs.dtos.TaskRequestDto;
+import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.enums.WriteStatus;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Chunked mode of the bulk create / update : instead of one transaction for the whole request , every chunk goes
+ * through the (transactional) TaskService on its own and commits before the next one starts. Locks , the persistence
+ * context and the WAL written per transaction are bounded by the chunk size , a failing chunk does not undo the others.
+ * The items of a failed chunk are retried one by one (tasks.chunked.retry-items) so that only the bad ones are reported.
+ *
+ * Not transactional itself on purpose : a surrounding transaction would make the chunks join it.
+ */
+@Slf4j
+@Service
+public class TaskChunkedWriteService {
+
+
+    private final TaskService taskService;
+
+    private final int defaultChunkSize;
+
+    private final int maxChunkSize;
+
+    private final boolean retryItems;
+
+
+
+    @Autowired
+    public TaskChunkedWriteService(
+        TaskService taskService,
+        @Value("${tasks.chunked.chunk-size:1000}") int defaultChunkSize,
+        @Value("${tasks.chunked.max-chunk-size:10000}") int maxChunkSize,
+        @Value("${tasks.chunked.retry-items:true}") boolean retryItems
+    ) {
+        this.taskService = taskService;
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.retryItems = retryItems;
+    }
+
+
+
+    public ChunkedWriteResult createInChunks(List<TaskRequestDto> requests, Integer chunkSize) {
+
+        return writeInChunks(
+            requests,
+            chunkSize,
+            chunk -> {
+                List<Long> ids = taskService.createEntities(chunk).stream()
+                                    .map(TaskResponseDto::getId)
+                                    .toList();
+                return new ChunkWrite(ids, ids.size());
+            }
+        );
+    }
+
+
+
+    /***
+     *
+     * Applies the same request to the tasks , chunk by chunk. Ids of the tenant that do not exist are committed
+     * without effect , the affected count of each chunk tells how many tasks it actually changed
+     */
+    public ChunkedWriteResult updateInChunks(List<Long> ids, TaskRequestDto request, Integer chunkSize) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("Task object cannot be null");
+        }
+
+        return writeInChunks(
+            ids,
+            chunkSize,
+            chunk -> new ChunkWrite(chunk, taskService.updateEntities(chunk, request).affectedRecords())
+        );
+    }
+
+
+
+    /**
+     * ids of the written items (in chunk order) and the number of rows the chunk wrote
+     */
+    private record ChunkWrite(List<Long> ids, long affected) {}
+
+
+
+    private <T> ChunkedWriteResult writeInChunks(List<T> items, Integer requestedChunkSize, Function<List<T>, ChunkWrite> writer) {
+
+        if (items == null || items.isEmpty()) {
+            return ChunkedWriteResult.builder()
+                    .chunks(List.of())
+                    .items(List.of())
+                    .build();
+        }
+
+        int chunkSize = resolveChunkSize(requestedChunkSize);
+
+        List<ChunkResult> chunks = new ArrayList<>((items.size() + chunkSize - 1) / chunkSize);
+        List<ItemResult> results = new ArrayList<>(items.size());
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+
+            List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+
+            chunks.add(writeChunk(chunks.size(), from, chunk, writer, results));
+        }
+
+        long committed = results.stream().filter(item -> item.status() == WriteStatus.COMMITTED).count();
+
+        log.info("Chunked write of {} items in {} chunks , {} committed ✅", items.size(), chunks.size(), committed);
+
+        return ChunkedWriteResult.builder()
+                .received(items.size())
+                .committed(committed)
+                .failed(items.size() - committed)
+                .chunks(chunks)
+                .items(results)
+                .build();
+    }
+
+
+
+    private <T> ChunkResult writeChunk(
+        int chunkNumber,
+        int from,
+        List<T> chunk,
+        Function<List<T>, ChunkWrite> writer,
+        List<ItemResult> results
+    ) {
+
+        try {
+
+            ChunkWrite written = writer.apply(chunk);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(new ItemResult(from + i, written.ids().get(i), WriteStatus.COMMITTED, null));
+            }
+
+            return new ChunkResult(chunkNumber, from, chunk.size(), WriteStatus.COMMITTED, written.affected(), null);
+
+        } catch (RuntimeException e) {
+
+            String error = errorMessage(e);
+
+            log.warn("Chunk {} of {} items rolled back : {}", chunkNumber, chunk.size(), error);
+
+            if (!retryItems || chunk.size() == 1) {
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(new ItemResult(from + i, null, WriteStatus.FAILED, error));
+                }
+
+                return new ChunkResult(chunkNumber, from, chunk.size(), WriteStatus.FAILED, 0, error);
+            }
+
+            return retryItemByItem(chunkNumber, from, chunk, writer, results, error);
+        }
+    }
+
+
+
+    /***
+     *
+     * Each item of the rolled back chunk in its own transaction
+     */
+    private <T> ChunkResult retryItemByItem(
+        int chunkNumber,
+        int from,
+        List<T> chunk,
+        Function<List<T>, ChunkWrite> writer,
+        List<ItemResult> results,
+        String chunkError
+    ) {
+
+        long affected = 0;
+        int committed = 0;
+
+        for (int i = 0; i < chunk.size(); i++) {
+
+            try {
+
+                ChunkWrite written = writer.apply(List.of(chunk.get(i)));
+
+                results.add(new ItemResult(from + i, written.ids().get(0), WriteStatus.COMMITTED, null));
+                affected += written.affected();
+                committed++;
+
+            } catch (RuntimeException e) {
+                results.add(new ItemResult(from + i, null, WriteStatus.FAILED, errorMessage(e)));
+            }
+        }
+
+        WriteStatus status = committed == chunk.size()
+                            ? WriteStatus.COMMITTED
+                            : committed == 0 ? WriteStatus.FAILED : WriteStatus.PARTIALLY_COMMITTED;
+
+        return new ChunkResult(chunkNumber, from, chunk.size(), status, affected, chunkError);
+    }
+
+
+
+    private int resolveChunkSize(Integer requestedChunkSize) {
+
+        if (requestedChunkSize == null) {
+            return defaultChunkSize;
+        }
+
+        if (requestedChunkSize <= 0 || requestedChunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("chunkSize must be between 1 and " + maxChunkSize);
+        }
+
+        return requestedChunkSize;
+    }
+
+
+
+    private static String errorMessage(RuntimeException e) {
+        return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+    }
+}
@@ -0,0 +1,228 @@
+package io.hahn_software.emrs.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.hahn_software.emrs.annotations.LogUserOperation;
+import io.hahn_software.emrs.dao.repositories.TaskBulkRepo;
+import io.hahn_software.emrs.dtos.BulkImportResult;
+import io.hahn_software.emrs.dtos.BulkImportResult.ImportedChunk;
+import io.hahn_software.emrs.dtos.BulkImportResult.RowError;
+import io.hahn_software.emrs.dtos.TaskRequestDto;
+import io.hahn_software.emrs.dtos.interfaces.CreateValidationGroup;
+import io.hahn_software.emrs.enums.TaskChangeType;
+import io.hahn_software.emrs.events.TaskChangedEvent;
+import io.hahn_software.emrs.mappers.TaskMapper;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * High volume ingest : the request body is parsed element by element , each element is validated as it arrives
+ * and valid rows are written with COPY in bounded chunks , each chunk in its own short transaction.
+ * Memory use is bounded by the chunk size whatever the size of the import : only a summary per written chunk
+ * (element and id range) and the rejected elements are kept for the response.
+ */
+@Slf4j
+@Service
+public class TaskImportService {
+
+
+    private final TaskBulkRepo taskBulkRepo;
+
+    private final TaskMapper taskMapper;
+
+    private final Validator validator;
+
+    private final ObjectReader taskReader;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver;
+
+
+    @Autowired
+    public TaskImportService(
+        TaskBulkRepo taskBulkRepo,
+        TaskMapper taskMapper,
+        Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher eventPublisher,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        @Value("${tasks.import.chunk-size:5000}") int chunkSize
+    ) {
+        this.taskBulkRepo = taskBulkRepo;
+        this.taskMapper = taskMapper;
+        this.validator = validator;
+        this.taskReader = objectMapper.readerFor(TaskRequestDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.eventPublisher = eventPublisher;
+        this.tenantResolver = tenantResolver;
+    }
+
+
+
+    /***
+     *
+     * Imports a JSON array of tasks (the POST /tasks payload) or newline delimited JSON documents
+     */
+    @LogUserOperation("Imported tasks in bulk.")
+    public BulkImportResult importTasks(InputStream body) throws IOException {
+
+        List<ImportedChunk> chunks = new ArrayList<>();
+        List<RowError> errors = new ArrayList<>();
+
+        List<TaskRequestDto> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        int index = 0;
+
+        // a root level array is unwrapped , its elements are read one at a time
+        try (MappingIterator<TaskRequestDto> elements = taskReader.readValues(body)) {
+
+            while (hasNext(elements, index, errors)) {
+
+                TaskRequestDto request;
+
+                try {
+                    request = elements.nextValue();
+                } catch (JsonParseException e) {
+                    errors.add(new RowError(index, "Malformed JSON : " + e.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException e) {
+                    errors.add(new RowError(index++, "Invalid task : " + e.getOriginalMessage()));
+                    continue;
+                }
+
+                String violations = validate(request);
+
+                if (violations != null) {
+                    errors.add(new RowError(index++, violations));
+                    continue;
+                }
+
+                chunk.add(request);
+                chunkIndexes.add(index++);
+
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, chunkIndexes, chunks, errors);
+                }
+            }
+        }
+
+        writeChunk(chunk, chunkIndexes, chunks, errors);
+
+        long imported = chunks.stream().mapToLong(ImportedChunk::imported).sum();
+
+        log.info("Imported {} of {} tasks ✅", imported, index);
+
+        return BulkImportResult.builder()
+                .received(index)
+                .imported(imported)
+                .chunks(chunks)
+                .errors(errors)
+                .build();
+    }
+
+
+
+    private boolean hasNext(MappingIterator<TaskRequestDto> elements, int index, List<RowError> errors) throws IOException {
+        try {
+            return elements.hasNextValue();
+        } catch (JsonParseException e) {
+            errors.add(new RowError(index, "Malformed JSON : " + e.getOriginalMessage()));
+            return false;
+        }
+    }
+
+
+
+    private String validate(TaskRequestDto request) {
+
+        Set<ConstraintViolation<TaskRequestDto>> violations = validator.validate(request, CreateValidationGroup.class);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+
+
+    private void writeChunk(
+        List<TaskRequestDto> chunk,
+        List<Integer> chunkIndexes,
+        List<ImportedChunk> chunks,
+        List<RowError> errors
+    ) {
+
+        if (chunk.isEmpty()) {
+            return ;
+        }
+
+        try {
+
+            List<Long> chunkIds = transactionTemplate.execute(status -> {
+
+                List<Long> copied = taskBulkRepo.copyInBatch(taskMapper.toTaskList(chunk));
+
+                eventPublisher.publishEvent(
+                    new TaskChangedEvent(tenantResolver.resolveCurrentTenantIdentifier(), TaskChangeType.CREATED, copied)
+                );
+
+                return copied;
+            });
+
+            chunks.add(new ImportedChunk(
+                chunkIndexes.get(0),
+                chunkIndexes.get(chunkIndexes.size() - 1),
+                chunkIds.size(),
+                chunkIds.get(0),
+                chunkIds.get(chunkIds.size() - 1)
+            ));
+
+        } catch (RuntimeException e) {
+
+            log.warn("Failed to import a chunk of {} tasks", chunk.size(), e);
+
+            String message = "Chunk rejected by the database : " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+
+            chunkIndexes.forEach(chunkIndex -> errors.add(new RowError(chunkIndex, message)));
+        }
+
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+}
@@ -0,0 +1,389 @@
+package io.hahn_software.emrs.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+import io.hahn_software.emrs.dao.repositories.TaskRepo;
+import io.hahn_software.emrs.dtos.TaskFilter;
+import io.hahn_software.emrs.dtos.TaskJobDto;
+import io.hahn_software.emrs.dtos.TaskRequestDto;
+import io.hahn_software.emrs.enums.TaskJobStatus;
+import io.hahn_software.emrs.enums.TaskJobType;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.RequestTenant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Filter based bulk delete / update run in the background : the filtered set is walked by id (keyset over
+ * tenant_id , id) in chunks of tasks.jobs.chunk-size , every chunk selected and written in its own short transaction
+ * through the TaskService (counters , cache , change events and audit as for the id based endpoints).
+ * No lock outlives a chunk and the HTTP request only submits the job , progress is polled and a job can be cancelled
+ * between two chunks. Jobs are kept in memory , a restart loses the finished ones and stops the running ones.
+ */
+@Slf4j
+@Service
+public class TaskJobService {
+
+
+    private final TaskService taskService;
+
+    private final TaskRepo taskRepo;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver;
+
+    private final ExecutorService workers;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+
+    private final int chunkSize;
+
+    private final long chunkPauseMs;
+
+    private final int maxActivePerTenant;
+
+    private final Duration retention;
+
+
+
+    @Autowired
+    public TaskJobService(
+        TaskService taskService,
+        TaskRepo taskRepo,
+        PlatformTransactionManager transactionManager,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        @Value("${tasks.jobs.threads:2}") int threads,
+        @Value("${tasks.jobs.chunk-size:1000}") int chunkSize,
+        @Value("${tasks.jobs.chunk-pause-ms:0}") long chunkPauseMs,
+        @Value("${tasks.jobs.max-active-per-tenant:2}") int maxActivePerTenant,
+        @Value("${tasks.jobs.retention:1h}") Duration retention
+    ) {
+        this.taskService = taskService;
+        this.taskRepo = taskRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tenantResolver = tenantResolver;
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("task-job-"));
+        this.chunkSize = chunkSize;
+        this.chunkPauseMs = chunkPauseMs;
+        this.maxActivePerTenant = maxActivePerTenant;
+        this.retention = retention;
+    }
+
+
+
+    public TaskJobDto submitDelete(TaskFilter filter) {
+        return submit(TaskJobType.DELETE, filter, null);
+    }
+
+
+
+    /***
+     *
+     * Sets the non null fields of the request on every task matching the filter
+     */
+    public TaskJobDto submitUpdate(TaskFilter filter, TaskRequestDto request) {
+
+        if (request == null) {
+            throw new IllegalArgumentException("Task object cannot be null");
+        }
+
+        if (request.getName() != null) {
+            throw new IllegalArgumentException("name is unique per tenant and can not be set on a filtered set of tasks");
+        }
+
+        return submit(TaskJobType.UPDATE, filter, request);
+    }
+
+
+
+    private TaskJobDto submit(TaskJobType type, TaskFilter filter, TaskRequestDto request) {
+
+        if (filter == null || !filter.hasConditions()) {
+            throw new IllegalArgumentException("At least one filter condition is required");
+        }
+
+        purgeFinished();
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        long active = jobs.values().stream()
+                        .filter(job -> job.tenantId.equals(tenantId) && !job.status.isFinished())
+                        .count();
+
+        if (active >= maxActivePerTenant) {
+            throw new IllegalStateException("Too many running task jobs (" + active + ") , wait for one to finish");
+        }
+
+        Job job = new Job(UUID.randomUUID(), type, tenantId, TenantContext.getTenantId(), filter, request);
+
+        jobs.put(job.id, job);
+
+        // the chunks are audited as the user who submitted the job
+        workers.execute(new DelegatingSecurityContextRunnable(() -> run(job)));
+
+        log.info("Task job {} submitted : {} where {} ✅", job.id, type, filter);
+
+        return job.toDto();
+    }
+
+
+
+    public Optional<TaskJobDto> find(UUID jobId) {
+        return currentTenantJob(jobId).map(Job::toDto);
+    }
+
+
+
+    public List<TaskJobDto> list() {
+
+        purgeFinished();
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        return jobs.values().stream()
+                .filter(job -> job.tenantId.equals(tenantId))
+                .sorted(Comparator.comparing((Job job) -> job.createdAt).reversed())
+                .map(Job::toDto)
+                .toList();
+    }
+
+
+
+    /***
+     *
+     * Stops the job after its current chunk , the chunks already committed stay committed
+     */
+    public Optional<TaskJobDto> cancel(UUID jobId) {
+
+        return currentTenantJob(jobId).map(job -> {
+            job.cancelRequested.set(true);
+            return job.toDto();
+        });
+    }
+
+
+
+    private Optional<Job> currentTenantJob(UUID jobId) {
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.tenantId.equals(tenantId));
+    }
+
+
+
+    private void run(Job job) {
+
+        if (job.cancelRequested.get()) {
+            job.finish(TaskJobStatus.CANCELLED, null);
+            return ;
+        }
+
+        job.start();
+
+        RequestTenant.set(job.rawTenantId);
+
+        try {
+
+            job.total = transactionTemplate.execute(status -> taskRepo.countWithFilter(job.filter));
+
+            Long afterId = null;
+
+            while (!job.cancelRequested.get()) {
+
+                Long from = afterId;
+
+                List<Long> ids = transactionTemplate.execute(status -> writeChunk(job, from));
+
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                afterId = ids.get(ids.size() - 1);
+
+                if (ids.size() < chunkSize) {
+                    break;
+                }
+
+                pause();
+            }
+
+            job.finish(job.cancelRequested.get() ? TaskJobStatus.CANCELLED : TaskJobStatus.COMPLETED, null);
+
+            log.info("Task job {} {} : {} of {} tasks affected ✅", job.id, job.status, job.affected.get(), job.total);
+
+        } catch (RuntimeException e) {
+
+            log.warn("Task job {} failed after {} chunks", job.id, job.chunks.get(), e);
+
+            job.finish(TaskJobStatus.FAILED, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+
+        } finally {
+            RequestTenant.clear();
+        }
+    }
+
+
+
+    /***
+     *
+     * One transaction : selects the next ids and deletes / updates them , returns the ids
+     */
+    private List<Long> writeChunk(Job job, Long afterId) {
+
+        List<Long> ids = taskRepo.findIdsWithFilter(job.filter, afterId, chunkSize);
+
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        int affected = job.type == TaskJobType.DELETE
+                        ? taskService.deleteEntities(ids).affectedRecords()
+                        : taskService.updateEntities(ids, job.request).affectedRecords();
+
+        job.processed.addAndGet(ids.size());
+        job.affected.addAndGet(affected);
+        job.chunks.incrementAndGet();
+
+        return ids;
+    }
+
+
+
+    private void pause() {
+
+        if (chunkPauseMs <= 0) {
+            return ;
+        }
+
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Task job interrupted", e);
+        }
+    }
+
+
+
+    private void purgeFinished() {
+
+        Instant limit = Instant.now().minus(retention);
+
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+
+
+    @PreDestroy
+    void shutdown() {
+
+        jobs.values().forEach(job -> job.cancelRequested.set(true));
+        workers.shutdown();
+    }
+
+
+
+    private static final class Job {
+
+        private final UUID id;
+
+        private final TaskJobType type;
+
+        private final UUID tenantId;
+
+        private final String rawTenantId;
+
+        private final TaskFilter filter;
+
+        private final TaskRequestDto request;
+
+        private final Instant createdAt = Instant.now();
+
+        private final AtomicBoolean cancelRequested = new AtomicBoolean();
+
+        private final AtomicLong processed = new AtomicLong();
+
+        private final AtomicLong affected = new AtomicLong();
+
+        private final AtomicLong chunks = new AtomicLong();
+
+        private volatile TaskJobStatus status = TaskJobStatus.QUEUED;
+
+        private volatile long total;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private volatile String error;
+
+
+        private Job(UUID id, TaskJobType type, UUID tenantId, String rawTenantId, TaskFilter filter, TaskRequestDto request) {
+            this.id = id;
+            this.type = type;
+            this.tenantId = tenantId;
+            this.rawTenantId = rawTenantId;
+            this.filter = filter;
+            this.request = request;
+        }
+
+
+        private void start() {
+            startedAt = Instant.now();
+            status = TaskJobStatus.RUNNING;
+        }
+
+
+        private void finish(TaskJobStatus finalStatus, String failure) {
+            error = failure;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+
+        private TaskJobDto toDto() {
+            return TaskJobDto.builder()
+                    .id(id)
+                    .type(type)
+                    .status(status)
+                    .filter(filter)
+                    .total(total)
+                    .processed(processed.get())
+                    .affected(affected.get())
+                    .chunks(chunks.get())
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
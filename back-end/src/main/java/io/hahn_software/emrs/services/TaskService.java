@@ -1,20 +1,68 @@
 package io.hahn_software.emrs.services;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trackswiftly.utils.base.services.TrackSwiftlyServiceAbstract;
 import com.trackswiftly.utils.dtos.OperationResult;
 import com.trackswiftly.utils.dtos.PageDTO;
 
 import io.hahn_software.emrs.annotations.LogUserOperation;
+import io.hahn_software.emrs.cache.TaskCache;
+import io.hahn_software.emrs.cache.TaskStatsCache;
+import io.hahn_software.emrs.dao.repositories.TaskBulkRepo;
+import io.hahn_software.emrs.dao.repositories.TaskBulkRepo.Upserted;
+import io.hahn_software.emrs.dao.repositories.TaskCounterRepo;
 import io.hahn_software.emrs.dao.repositories.TaskRepo;
+import io.hahn_software.emrs.dao.repositories.TaskVersionRepo;
+import io.hahn_software.emrs.dtos.CursorPageDTO;
+import io.hahn_software.emrs.dtos.PatchResult;
+import io.hahn_software.emrs.dtos.TaskPatchDto;
+import io.hahn_software.emrs.dtos.TaskFilter;
 import io.hahn_software.emrs.dtos.TaskRequestDto;
 import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.dtos.TaskStatsDto;
+import io.hahn_software.emrs.dtos.UpsertResult;
+import io.hahn_software.emrs.dtos.UpsertResult.ElementResult;
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.CounterDimension;
+import io.hahn_software.emrs.enums.ExportFormat;
+import io.hahn_software.emrs.enums.PatchOutcome;
+import io.hahn_software.emrs.enums.SortDirection;
+import io.hahn_software.emrs.enums.TaskChangeType;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskSort;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.enums.UpsertConflictAction;
+import io.hahn_software.emrs.enums.UpsertOutcome;
+import io.hahn_software.emrs.events.TaskChangedEvent;
 import io.hahn_software.emrs.mappers.TaskMapper;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.CsvUtils;
+import io.hahn_software.emrs.utils.CursorUtils;
+import io.hahn_software.emrs.utils.DateUtils;
+import io.hahn_software.emrs.utils.ETagUtils;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 
@@ -27,15 +75,56 @@ import lombok.extern.slf4j.Slf4j;
 public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestDto , TaskResponseDto >{
 
 
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+
     private final TaskRepo  taskRepo;
 
+    private final TaskCounterRepo taskCounterRepo;
+
+    private final TaskVersionRepo taskVersionRepo;
+
+    private final TaskBulkRepo taskBulkRepo;
+
     private final TaskMapper taskMapper;
 
+    private final CurrentTenantIdentifierResolverImpl tenantResolver;
+
+    private final ObjectMapper objectMapper;
+
+    private final TaskCache taskCache;
+
+    private final TaskStatsCache taskStatsCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int exportFetchSize;
+
 
     @Autowired
-    public TaskService(TaskRepo taskRepo, TaskMapper taskMapper) {
+    public TaskService(
+        TaskRepo taskRepo,
+        TaskCounterRepo taskCounterRepo,
+        TaskVersionRepo taskVersionRepo,
+        TaskBulkRepo taskBulkRepo,
+        TaskMapper taskMapper,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        ObjectMapper objectMapper,
+        TaskCache taskCache,
+        TaskStatsCache taskStatsCache,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${tasks.export.fetch-size:1000}") int exportFetchSize
+    ) {
         this.taskRepo = taskRepo;
+        this.taskCounterRepo = taskCounterRepo;
+        this.taskVersionRepo = taskVersionRepo;
+        this.taskBulkRepo = taskBulkRepo;
         this.taskMapper = taskMapper;
+        this.tenantResolver = tenantResolver;
+        this.objectMapper = objectMapper;
+        this.taskCache = taskCache;
+        this.taskStatsCache = taskStatsCache;
+        this.eventPublisher = eventPublisher;
+        this.exportFetchSize = exportFetchSize;
     }
 
 
@@ -49,10 +138,16 @@ public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestD
 
         int count = taskRepo.deleteByIds(ids); 
 
+        publishChange(TaskChangeType.DELETED, ids);
+
         return OperationResult.of(count , "Deleted " + count + " tasks successfully.") ;
         
     }
 
+    /***
+     *
+     * Read-through the task cache , only the ids missing from it are fetched (in one IN query)
+     */
     @Override
     public List<TaskResponseDto> findEntities(List<Long> ids) {
         
@@ -60,9 +155,50 @@ public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestD
             return Collections.emptyList();
         }
 
-        return taskMapper.toTaskResponseDtoList(
-            taskRepo.findByIds(ids)
+        return taskCache.getAll(
+            tenantResolver.resolveCurrentTenantIdentifier(),
+            ids,
+            missingIds -> taskMapper.toTaskResponseDtoList(taskRepo.findByIds(missingIds))
+        );
+    }
+
+
+
+    /***
+     *
+     * Weak ETag of the given tasks , derived from their (id , updatedAt) : cached DTOs are used as they are ,
+     * the ids missing from the task cache are read with a projection of updated_at , nothing is hydrated or mapped
+     * (the body of a 200 loads them through findEntities)
+     */
+    public String findETag(List<Long> ids) {
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        if (ids == null || ids.isEmpty()) {
+            return ETagUtils.weak(tenantId);
+        }
+
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        Map<Long, TaskResponseDto> cached = taskCache.getAllPresent(tenantId, distinctIds);
+
+        Map<Long, Instant> loaded = taskRepo.findUpdatedAt(
+            distinctIds.stream().filter(id -> !cached.containsKey(id)).toList()
         );
+
+        List<String> versions = new ArrayList<>(distinctIds.size());
+
+        // in request order , unknown ids are skipped as findEntities does
+        for (Long id : distinctIds) {
+
+            if (cached.containsKey(id)) {
+                versions.add(id + ":" + cached.get(id).getUpdatedAt());
+            } else if (loaded.containsKey(id)) {
+                // same precision as the DTOs , the ETag does not depend on whether the task was cached
+                versions.add(id + ":" + DateUtils.instantToLong(loaded.get(id)));
+            }
+        }
+
+        return ETagUtils.weak(tenantId, ids, versions);
     }
 
 
@@ -70,6 +206,18 @@ public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestD
     @Override
     public PageDTO<TaskResponseDto> pageEntities(int page, int pageSize) {
 
+        return pageEntities(page, pageSize, false);
+    }
+
+
+
+    /***
+     *
+     * Totals are served from the per-tenant counters , exact = true counts the tasks table instead
+     * and can be used to reconcile the counters
+     */
+    public PageDTO<TaskResponseDto> pageEntities(int page, int pageSize, boolean exact) {
+
         if (page < 0 || pageSize <= 0) {
             throw new IllegalArgumentException("Page and pageSize must be positive values");
         }
@@ -83,26 +231,385 @@ public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestD
         ) ;
 
 
-        long totalElements = taskRepo.count();
+        long totalElements = exact
+                            ? taskRepo.count()
+                            : taskCounterRepo.sum(CounterDimension.STATUS);
+
+        int totalPages = (int) Math.ceil((double) totalElements / pageSize);
+
+        return new PageDTO<>(content, page, pageSize, totalElements, totalPages);
+    }
+
+
+
+    /***
+     *
+     * Filtered and / or sorted listing , the total is an exact count of the filtered tasks.
+     * Without conditions and with the default sort this is the plain listing
+     */
+    public PageDTO<TaskResponseDto> pageEntities(
+        TaskFilter filter,
+        TaskSort sort,
+        SortDirection direction,
+        int page,
+        int pageSize,
+        boolean exact
+    ) {
+
+        if (isDefaultListing(filter, sort, direction)) {
+            return pageEntities(page, pageSize, exact);
+        }
+
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page and pageSize must be positive values");
+        }
+
+        requireIndexed(filter, sort);
+
+        List<TaskResponseDto> content = taskMapper.toTaskResponseDtoList(
+            taskRepo.findWithFilter(filter, sort, direction, page, pageSize)
+        );
+
+        long totalElements = taskRepo.countWithFilter(filter);
 
         int totalPages = (int) Math.ceil((double) totalElements / pageSize);
 
         return new PageDTO<>(content, page, pageSize, totalElements, totalPages);
     }
 
+
+
+    /***
+     *
+     * Weak ETag of a filtered listing , derived from the tenant's task version (see pageETag)
+     */
+    public String pageETag(
+        TaskFilter filter,
+        TaskSort sort,
+        SortDirection direction,
+        int page,
+        int pageSize,
+        boolean exact
+    ) {
+
+        if (isDefaultListing(filter, sort, direction)) {
+            return pageETag(page, pageSize, exact);
+        }
+
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page and pageSize must be positive values");
+        }
+
+        requireIndexed(filter, sort);
+
+        return ETagUtils.weak(
+            tenantResolver.resolveCurrentTenantIdentifier(),
+            filter,
+            sort,
+            direction,
+            page,
+            pageSize,
+            taskVersionRepo.version()
+        );
+    }
+
+
+
+    /***
+     *
+     * Only the filter / sort combinations backed by an index are served , see TaskSort
+     */
+    private static void requireIndexed(TaskFilter filter, TaskSort sort) {
+
+        if (sort.isIndexedFor(filter)) {
+            return ;
+        }
+
+        throw new IllegalArgumentException(
+            "Sorting by " + sort + " is not supported with the " + filter.equalityFields() + " filters , supported sorts : "
+            + Arrays.stream(TaskSort.values()).filter(candidate -> candidate.isIndexedFor(filter)).toList()
+        );
+    }
+
+
+
+    private static boolean isDefaultListing(TaskFilter filter, TaskSort sort, SortDirection direction) {
+        return (filter == null || !filter.hasConditions())
+            && (sort == null || sort == TaskSort.ID)
+            && (direction == null || direction == SortDirection.ASC);
+    }
+
+
+
+    /***
+     *
+     * Weak ETag of a page , changes whenever a task of the tenant is created , updated or deleted :
+     * the tenant's task version is bumped in the write transaction , one primary key lookup whatever the page depth.
+     * exact only changes how the total of the body is computed , both totals only move with a write
+     */
+    public String pageETag(int page, int pageSize, boolean exact) {
+
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page and pageSize must be positive values");
+        }
+
+        return ETagUtils.weak(
+            tenantResolver.resolveCurrentTenantIdentifier(),
+            page,
+            pageSize,
+            exact,
+            taskVersionRepo.version()
+        );
+    }
+
+
+
+    /***
+     *
+     * Cursor (keyset) mode : the cost of a page does not depend on how deep it is,
+     * the returned nextCursor is passed back to fetch the following page
+     */
+    public CursorPageDTO<TaskResponseDto> pageEntities(String cursor, int pageSize) {
+
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be a positive value");
+        }
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        // fetch one extra row to know if there is a next page without counting
+        List<Task> tasks = taskRepo.findAfterId(
+            CursorUtils.decode(cursor, tenantId),
+            pageSize + 1
+        );
+
+        boolean hasNext = tasks.size() > pageSize;
+
+        if (hasNext) {
+            tasks = tasks.subList(0, pageSize);
+        }
+
+        String nextCursor = hasNext
+                            ? CursorUtils.encode(tenantId, tasks.get(tasks.size() - 1).getId())
+                            : null;
+
+        return new CursorPageDTO<>(
+            taskMapper.toTaskResponseDtoList(tasks),
+            pageSize,
+            nextCursor,
+            hasNext
+        );
+    }
+
+    /***
+     *
+     * Dashboard aggregates , read from the per-tenant counters (one row per bucket , whatever the number of tasks)
+     * through the stats cache
+     */
+    public TaskStatsDto stats() {
+
+        return taskStatsCache.get(
+            tenantResolver.resolveCurrentTenantIdentifier(),
+            tenantId -> toStats(taskCounterRepo.buckets())
+        );
+    }
+
+
+
+    private static TaskStatsDto toStats(Map<CounterDimension, Map<String, Long>> buckets) {
+
+        Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        Map<UUID, Long> byAssignee = new HashMap<>();
+
+        // every status and priority is listed , with 0 when there is no such task
+        Arrays.stream(TaskStatus.values()).forEach(status -> byStatus.put(status, 0L));
+        Arrays.stream(TaskPriority.values()).forEach(priority -> byPriority.put(priority, 0L));
+
+        buckets.getOrDefault(CounterDimension.STATUS, Map.of())
+            .forEach((bucket, count) -> byStatus.put(TaskStatus.valueOf(bucket), count));
+
+        buckets.getOrDefault(CounterDimension.PRIORITY, Map.of())
+            .forEach((bucket, count) -> byPriority.put(TaskPriority.valueOf(bucket), count));
+
+        buckets.getOrDefault(CounterDimension.ASSIGNEE, Map.of())
+            .forEach((bucket, count) -> byAssignee.put(UUID.fromString(bucket), count));
+
+        return TaskStatsDto.builder()
+                .total(byStatus.values().stream().mapToLong(Long::longValue).sum())
+                .byStatus(Collections.unmodifiableMap(byStatus))
+                .byPriority(Collections.unmodifiableMap(byPriority))
+                .byAssignee(Collections.unmodifiableMap(byAssignee))
+                .build();
+    }
+
+
+
     @Override
-    public List<TaskResponseDto> search(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'search'");
+    public List<TaskResponseDto> search(String keyword) {
+
+        return search(keyword, 0, DEFAULT_SEARCH_PAGE_SIZE);
+    }
+
+
+
+    public List<TaskResponseDto> search(String keyword, int page, int pageSize) {
+
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page and pageSize must be positive values");
+        }
+
+        if (keyword == null || keyword.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        return taskMapper.toTaskResponseDtoList(
+            taskRepo.search(keyword.strip(), page, pageSize)
+        );
+    }
+
+
+    /***
+     *
+     * Writes every task of the tenant to the output as it is read from the database cursor ,
+     * nothing but the current row is held in memory whatever the number of tasks
+     */
+    public long exportEntities(ExportFormat format, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        try {
+
+            long exported = format == ExportFormat.CSV
+                            ? exportAsCsv(writer)
+                            : exportAsNdjson(writer);
+
+            writer.flush();
+
+            log.debug("Exported {} tasks as {} 🔖", exported, format);
+
+            return exported ;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
 
+
+    private long exportAsNdjson(Writer writer) throws IOException {
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long exported = taskRepo.scrollAll(exportFetchSize, task -> {
+            try {
+                generator.writeObject(taskMapper.fromTask(task));
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        generator.flush();
+
+        return exported ;
+    }
+
+
+
+    private long exportAsCsv(Writer writer) throws IOException {
+
+        writer.write("id,name,status,priority,description,estimateDate,assignToUserId,userName,createdAt,updatedAt\n");
+
+        return taskRepo.scrollAll(exportFetchSize, task -> {
+
+            TaskResponseDto dto = taskMapper.fromTask(task);
+
+            try {
+                writer.write(String.join(",",
+                    CsvUtils.escape(dto.getId()),
+                    CsvUtils.escape(dto.getName()),
+                    CsvUtils.escape(dto.getStatus()),
+                    CsvUtils.escape(dto.getPriority()),
+                    CsvUtils.escape(dto.getDescription()),
+                    CsvUtils.escape(dto.getEstimateDate()),
+                    CsvUtils.escape(dto.getAssignToUserId()),
+                    CsvUtils.escape(dto.getUserName()),
+                    CsvUtils.escape(dto.getCreatedAt()),
+                    CsvUtils.escape(dto.getUpdatedAt())
+                ));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+
+
     @LogUserOperation("Created multiple tasks in batch.")
     @Override
     protected List<TaskResponseDto> performCreateEntities(List<TaskRequestDto> requests) {
 
-        return taskMapper.toTaskResponseDtoList(
+        List<TaskResponseDto> created = taskMapper.toTaskResponseDtoList(
                 taskRepo.insertInBatch(taskMapper.toTaskList(requests))
             );
+
+        publishChange(TaskChangeType.CREATED, created.stream().map(TaskResponseDto::getId).toList());
+
+        return created;
+    }
+
+
+
+    /***
+     *
+     * Idempotent bulk write keyed by (tenant , name) : new names are created , existing ones are updated or left
+     * as they are (onConflict = NOTHING). Replaying the same payload creates and updates nothing
+     */
+    @LogUserOperation("Upserted multiple tasks in batch.")
+    public UpsertResult upsertEntities(List<TaskRequestDto> requests, UpsertConflictAction onConflict) {
+
+        if (requests == null || requests.isEmpty()) {
+            return UpsertResult.builder().results(Collections.emptyList()).build();
+        }
+
+        List<Upserted> upserted = taskBulkRepo.upsertInBatch(
+            taskMapper.toTaskList(requests),
+            onConflict == null ? UpsertConflictAction.UPDATE : onConflict
+        );
+
+        Map<UpsertOutcome, Long> counts = new EnumMap<>(UpsertOutcome.class);
+        List<ElementResult> results = new ArrayList<>(upserted.size());
+        List<Long> createdIds = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+
+        for (int i = 0; i < upserted.size(); i++) {
+
+            Upserted element = upserted.get(i);
+
+            results.add(new ElementResult(i, element.id(), element.outcome()));
+            counts.merge(element.outcome(), 1L, Long::sum);
+
+            if (element.outcome() == UpsertOutcome.CREATED) {
+                createdIds.add(element.id());
+            } else if (element.outcome() == UpsertOutcome.UPDATED) {
+                updatedIds.add(element.id());
+            }
+        }
+
+        publishChange(TaskChangeType.CREATED, createdIds);
+        publishChange(TaskChangeType.UPDATED, updatedIds);
+
+        return UpsertResult.builder()
+                .received(requests.size())
+                .created(counts.getOrDefault(UpsertOutcome.CREATED, 0L))
+                .updated(counts.getOrDefault(UpsertOutcome.UPDATED, 0L))
+                .skipped(counts.getOrDefault(UpsertOutcome.SKIPPED, 0L))
+                .results(results)
+                .build();
     }
 
 
@@ -119,11 +626,77 @@ public class TaskService extends TrackSwiftlyServiceAbstract<Long , TaskRequestD
             throw new IllegalArgumentException("Task object cannot be null");
         }
 
-        return OperationResult.of(
+        OperationResult result = OperationResult.of(
                 taskRepo.updateInBatch(ids, taskMapper.toTask(request))
+        );
 
+        publishChange(TaskChangeType.UPDATED, ids);
+
+        return result;
+    }
+
+
+
+    /***
+     *
+     * Heterogeneous bulk update : every element carries its own id and fields , written set based
+     * (one statement per chunk and set of changed fields , see TaskBulkRepo.patchInBatch)
+     */
+    @LogUserOperation("Patched multiple tasks with per task values.")
+    public PatchResult patchEntities(List<TaskPatchDto> patches) {
+
+        if (patches == null || patches.isEmpty()) {
+            return PatchResult.builder().results(Collections.emptyList()).build();
+        }
+
+        if (patches.stream().anyMatch(patch -> patch.getName() != null)) {
+            throw new IllegalArgumentException("name is unique per tenant and can not be patched in bulk , use PUT /tasks/{id}");
+        }
+
+        List<PatchOutcome> outcomes = taskBulkRepo.patchInBatch(
+            patches.stream().map(taskMapper::toTask).toList()
+        );
+
+        Map<PatchOutcome, Long> counts = new EnumMap<>(PatchOutcome.class);
+        List<PatchResult.ElementResult> results = new ArrayList<>(outcomes.size());
+        List<Long> updatedIds = new ArrayList<>();
+
+        for (int i = 0; i < outcomes.size(); i++) {
+
+            PatchOutcome outcome = outcomes.get(i);
+            Long id = patches.get(i).getId();
+
+            results.add(new PatchResult.ElementResult(i, id, outcome));
+            counts.merge(outcome, 1L, Long::sum);
+
+            if (outcome == PatchOutcome.UPDATED) {
+                updatedIds.add(id);
+            }
+        }
+
+        publishChange(TaskChangeType.UPDATED, updatedIds);
+
+        return PatchResult.builder()
+                .received(patches.size())
+                .updated(counts.getOrDefault(PatchOutcome.UPDATED, 0L))
+                .unchanged(counts.getOrDefault(PatchOutcome.UNCHANGED, 0L))
+                .notFound(counts.getOrDefault(PatchOutcome.NOT_FOUND, 0L))
+                .duplicates(counts.getOrDefault(PatchOutcome.DUPLICATE, 0L))
+                .results(results)
+                .build();
+    }
+
+
+
+    /***
+     *
+     * Delivered to the change stream (TaskStreamHub) only once the current transaction commits
+     */
+    private void publishChange(TaskChangeType type, List<Long> ids) {
+
+        eventPublisher.publishEvent(
+            new TaskChangedEvent(tenantResolver.resolveCurrentTenantIdentifier(), type, ids)
         );
-        
     }
 
     @Override
@@ -0,0 +1,326 @@
+package io.hahn_software.emrs.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.hahn_software.emrs.dtos.TaskChangeMessage;
+import io.hahn_software.emrs.enums.TaskChangeType;
+import io.hahn_software.emrs.events.TaskChangedEvent;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Fan-out of committed task changes to the SSE subscribers of the same tenant.
+ * Committing threads only enqueue into each subscriber's bounded buffer , a flusher periodically hands the
+ * subscribers with pending changes to a small pool of senders. Everything pending for a subscriber is sent
+ * at once : one event per change type , or a single "changed" event with a count when the burst is too large.
+ * A subscriber whose buffer overflows is too slow to keep up , its stream is completed (the client reconnects
+ * and reloads) instead of buffering without bound.
+ */
+@Slf4j
+@Component
+public class TaskStreamHub {
+
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService senders;
+
+    private final int bufferSize;
+
+    private final int coalesceThreshold;
+
+    private final long flushIntervalMs;
+
+    private final long heartbeatIntervalMs;
+
+    private final long emitterTimeoutMs;
+
+    private final Counter slowConsumerCounter;
+
+    private final CurrentTenantIdentifierResolverImpl tenantResolver;
+
+
+
+    @Autowired
+    public TaskStreamHub(
+        MeterRegistry meterRegistry,
+        CurrentTenantIdentifierResolverImpl tenantResolver,
+        @Value("${tasks.stream.buffer-size:256}") int bufferSize,
+        @Value("${tasks.stream.coalesce-threshold:100}") int coalesceThreshold,
+        @Value("${tasks.stream.flush-interval-ms:250}") long flushIntervalMs,
+        @Value("${tasks.stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+        @Value("${tasks.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+        @Value("${tasks.stream.sender-threads:4}") int senderThreads
+    ) {
+        this.tenantResolver = tenantResolver;
+        this.bufferSize = bufferSize;
+        this.coalesceThreshold = coalesceThreshold;
+        this.flushIntervalMs = flushIntervalMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("task-stream-flusher-"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, new CustomizableThreadFactory("task-stream-sender-"));
+
+        this.slowConsumerCounter = meterRegistry.counter("tasks.stream.disconnected", "reason", "slow");
+
+        Gauge.builder("tasks.stream.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open /tasks/stream connections")
+            .register(meterRegistry);
+    }
+
+
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+
+
+    /***
+     *
+     * Opens a change stream for the caller's tenant
+     */
+    public SseEmitter subscribe() {
+
+        UUID tenantId = tenantResolver.resolveCurrentTenantIdentifier();
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(tenantId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.computeIfAbsent(tenantId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+
+        log.debug("Task stream opened for tenant {} 🔖", tenantId);
+
+        return emitter;
+    }
+
+
+
+    /***
+     *
+     * Runs on the committing thread , only enqueues
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+
+        Set<Subscriber> tenantSubscribers = subscribers.get(event.tenantId());
+
+        if (tenantSubscribers == null || event.ids().isEmpty()) {
+            return ;
+        }
+
+        for (Subscriber subscriber : tenantSubscribers) {
+            if (!subscriber.queue().offer(event)) {
+                disconnectSlow(subscriber);
+            }
+        }
+    }
+
+
+
+    private void flush() {
+
+        for (Set<Subscriber> tenantSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : tenantSubscribers) {
+
+                boolean pending = !subscriber.queue().isEmpty() || subscriber.heartbeatDue().get();
+
+                // one send in flight per subscriber , a slow one keeps filling its own buffer meanwhile
+                if (pending && subscriber.sending().compareAndSet(false, true)) {
+                    senders.execute(() -> send(subscriber));
+                }
+            }
+        }
+    }
+
+
+
+    private void heartbeat() {
+        subscribers.values().forEach(tenantSubscribers ->
+            tenantSubscribers.forEach(subscriber -> subscriber.heartbeatDue().set(true))
+        );
+    }
+
+
+
+    private void send(Subscriber subscriber) {
+
+        try {
+
+            List<TaskChangedEvent> batch = new ArrayList<>();
+            subscriber.queue().drainTo(batch);
+
+            boolean heartbeatDue = subscriber.heartbeatDue().getAndSet(false);
+
+            if (batch.isEmpty()) {
+                if (heartbeatDue) {
+                    subscriber.emitter().send(SseEmitter.event().comment("keepalive"));
+                }
+                return ;
+            }
+
+            for (SseEmitter.SseEventBuilder event : coalesce(batch)) {
+                subscriber.emitter().send(event);
+            }
+
+        } catch (IOException e) {
+            // the client went away
+            log.debug("Task stream of tenant {} closed : {}", subscriber.tenantId(), e.getMessage());
+            remove(subscriber);
+            subscriber.emitter().completeWithError(e);
+        } catch (IllegalStateException e) {
+            // the stream already completed (timeout , slow consumer)
+            remove(subscriber);
+        } finally {
+            subscriber.sending().set(false);
+        }
+    }
+
+
+
+    private List<SseEmitter.SseEventBuilder> coalesce(List<TaskChangedEvent> batch) {
+
+        long total = batch.stream().mapToLong(event -> event.ids().size()).sum();
+
+        if (total > coalesceThreshold) {
+            return List.of(
+                SseEmitter.event()
+                    .name("changed")
+                    .data(TaskChangeMessage.builder().count(total).build(), MediaType.APPLICATION_JSON)
+            );
+        }
+
+        Map<TaskChangeType, Set<Long>> idsByType = new EnumMap<>(TaskChangeType.class);
+
+        for (TaskChangedEvent event : batch) {
+            idsByType.computeIfAbsent(event.type(), type -> new LinkedHashSet<>()).addAll(event.ids());
+        }
+
+        List<SseEmitter.SseEventBuilder> events = new ArrayList<>(idsByType.size());
+
+        idsByType.forEach((type, ids) -> events.add(
+            SseEmitter.event()
+                .name(type.name().toLowerCase(Locale.ROOT))
+                .data(new TaskChangeMessage(List.copyOf(ids), ids.size()), MediaType.APPLICATION_JSON)
+        ));
+
+        return events;
+    }
+
+
+
+    private void disconnectSlow(Subscriber subscriber) {
+
+        if (remove(subscriber)) {
+            slowConsumerCounter.increment();
+            log.warn("Task stream of tenant {} can not keep up , disconnecting it", subscriber.tenantId());
+            subscriber.emitter().complete();
+        }
+    }
+
+
+
+    private boolean remove(Subscriber subscriber) {
+
+        if (!subscriber.removed().compareAndSet(false, true)) {
+            return false;
+        }
+
+        subscribers.computeIfPresent(subscriber.tenantId(), (tenantId, tenantSubscribers) -> {
+            tenantSubscribers.remove(subscriber);
+            return tenantSubscribers.isEmpty() ? null : tenantSubscribers;
+        });
+
+        subscriberCount.decrementAndGet();
+
+        return true;
+    }
+
+
+
+    @PreDestroy
+    void shutdown() {
+
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+
+        subscribers.values().forEach(tenantSubscribers ->
+            tenantSubscribers.forEach(subscriber -> subscriber.emitter().complete())
+        );
+
+        subscribers.clear();
+    }
+
+
+
+    private record Subscriber(
+        UUID tenantId,
+        SseEmitter emitter,
+        BlockingQueue<TaskChangedEvent> queue,
+        AtomicBoolean sending,
+        AtomicBoolean heartbeatDue,
+        AtomicBoolean removed
+    ) {
+
+        Subscriber(UUID tenantId, SseEmitter emitter, BlockingQueue<TaskChangedEvent> queue) {
+            this(tenantId, emitter, queue, new AtomicBoolean(), new AtomicBoolean(), new AtomicBoolean());
+        }
+
+        // identity semantics , two subscribers are never equal
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package io.hahn_software.emrs.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.hahn_software.emrs.dao.repositories.UserLogRepo;
+import io.hahn_software.emrs.entities.UserLog;
+import io.hahn_software.emrs.enums.AuditOverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Asynchronous audit log pipeline : business operations only enqueue their (final) audit row ,
+ * a background writer drains the bounded queue and inserts the rows in batches outside of the caller's transaction.
+ */
+@Slf4j
+@Component
+public class UserLogWriter {
+
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+
+    private final UserLogRepo userLogRepo;
+
+    private final BlockingQueue<UserLog> queue;
+
+    private final AuditOverflowPolicy overflowPolicy;
+
+    private final int batchSize;
+
+    private final long flushIntervalMs;
+
+    private final long shutdownTimeoutMs;
+
+    private final Counter writtenCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter failedCounter;
+
+    private final Thread writerThread;
+
+    private final ExecutorService overflowExecutor;
+
+    private volatile boolean running = true;
+
+
+
+    @Autowired
+    public UserLogWriter(
+        UserLogRepo userLogRepo,
+        MeterRegistry meterRegistry,
+        @Value("${audit.log.queue-capacity:10000}") int queueCapacity,
+        @Value("${audit.log.batch-size:200}") int batchSize,
+        @Value("${audit.log.flush-interval-ms:500}") long flushIntervalMs,
+        @Value("${audit.log.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+        @Value("${audit.log.overflow-policy:BLOCK}") AuditOverflowPolicy overflowPolicy,
+        @Value("${audit.log.overflow-capacity:1000}") int overflowCapacity
+    ) {
+        this.userLogRepo = userLogRepo;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+
+        this.writtenCounter = meterRegistry.counter("audit.log.rows", "result", "written");
+        this.droppedCounter = meterRegistry.counter("audit.log.rows", "result", "dropped");
+        this.failedCounter = meterRegistry.counter("audit.log.rows", "result", "failed");
+
+        Gauge.builder("audit.log.queue.size", queue, BlockingQueue::size)
+            .description("Audit rows waiting to be written")
+            .register(meterRegistry);
+
+        this.writerThread = new Thread(this::drainLoop, "user-log-writer");
+        this.writerThread.setDaemon(true);
+
+        // a single thread holding no connection waits or writes for the callers that must not (see publishWithoutBlocking)
+        this.overflowExecutor = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(overflowCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "user-log-overflow");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+
+
+    @PostConstruct
+    void start() {
+        writerThread.start();
+        log.info("User log writer started , overflow policy : {} ✅", overflowPolicy);
+    }
+
+
+
+    /***
+     *
+     * Enqueues an audit row , applying the configured overflow policy when the queue is full
+     */
+    public void publish(UserLog userLog) {
+
+        if (queue.offer(userLog)) {
+            return ;
+        }
+
+        switch (overflowPolicy) {
+
+            case BLOCK -> {
+                try {
+                    queue.put(userLog);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    writeNow(List.of(userLog));
+                }
+            }
+
+            case CALLER_RUNS -> writeNow(List.of(userLog));
+
+            case DROP_OLDEST -> {
+                while (!queue.offer(userLog)) {
+                    if (queue.poll() != null) {
+                        droppedCounter.increment();
+                    }
+                }
+            }
+
+            case DROP_NEWEST -> {
+                droppedCounter.increment();
+                log.warn("Audit log queue is full , dropping log of operation {}", userLog.getOperation());
+            }
+        }
+    }
+
+
+
+    /***
+     *
+     * Enqueues an audit row without ever waiting or writing on the caller's thread , for callers that still hold
+     * a JDBC connection (transaction completion callbacks) : when the queue is full the DROP policies apply as usual ,
+     * BLOCK and CALLER_RUNS are applied by the overflow thread , and the row is dropped if that one is saturated too
+     */
+    public void publishWithoutBlocking(UserLog userLog) {
+
+        if (queue.offer(userLog)) {
+            return ;
+        }
+
+        if (overflowPolicy != AuditOverflowPolicy.BLOCK && overflowPolicy != AuditOverflowPolicy.CALLER_RUNS) {
+            publish(userLog);
+            return ;
+        }
+
+        try {
+            overflowExecutor.execute(() -> publish(userLog));
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+            log.warn("Audit log queue and overflow are full , dropping log of operation {}", userLog.getOperation());
+        }
+    }
+
+
+
+    private void drainLoop() {
+
+        List<UserLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+
+            try {
+
+                UserLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                writeNow(batch);
+
+            } catch (InterruptedException e) {
+                // the writer thread is ours , stop waiting and let the loop drain what is left
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+
+
+    private void writeNow(List<UserLog> batch) {
+
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+
+            try {
+
+                userLogRepo.insertInBatch(batch);
+                writtenCounter.increment(batch.size());
+                return ;
+
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} audit logs (attempt {}/{})", batch.size(), attempt, MAX_WRITE_ATTEMPTS, e);
+            }
+        }
+
+        failedCounter.increment(batch.size());
+        log.error("Giving up on {} audit logs after {} attempts", batch.size(), MAX_WRITE_ATTEMPTS);
+    }
+
+
+
+    /***
+     *
+     * Hands the overflow to the queue , lets the writer drain it , then flushes anything still queued before the context closes
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+
+        overflowExecutor.shutdown();
+        overflowExecutor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS);
+
+        running = false;
+        writerThread.join(shutdownTimeoutMs);
+
+        List<UserLog> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} remaining audit logs on shutdown", remaining.size());
+            writeNow(remaining);
+        }
+    }
+}
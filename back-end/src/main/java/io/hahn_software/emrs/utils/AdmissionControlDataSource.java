@@ -0,0 +1,185 @@
+package io.hahn_software.emrs.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Admission control in front of the connection pool : a caller needs a permit before it may borrow a connection ,
+ * the permit is given back when the connection is closed. With one permit per pooled connection , any number of
+ * (virtual) threads can serve requests while only as many as there are connections compete for the pool ,
+ * the others wait in a fair FIFO queue instead of piling up on the pool's hand-off.
+ */
+@Slf4j
+public class AdmissionControlDataSource extends DelegatingDataSource {
+
+
+    private final Semaphore permits ;
+
+    private final int maxPermits ;
+
+    private final long acquireTimeoutMs ;
+
+
+
+    public AdmissionControlDataSource(DataSource target, int maxPermits, long acquireTimeoutMs) {
+        super(target);
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return borrow(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return borrow(() -> super.getConnection(username, password));
+    }
+
+
+
+    private void acquire() throws SQLException {
+
+        try {
+
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                    "No database permit available after " + acquireTimeoutMs + "ms (" + permits.getQueueLength() + " waiting)"
+                );
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+
+    private Connection borrow(ConnectionSupplier supplier) throws SQLException {
+
+        Connection connection;
+
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            new PermitReleasingHandler(connection)
+        );
+    }
+
+
+
+    /** Permits currently free */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /** Threads waiting for a permit */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+
+
+    /***
+     *
+     * Forwards everything to the pooled connection and releases the permit on the first close()
+     */
+    private final class PermitReleasingHandler implements InvocationHandler {
+
+        private final Connection target ;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+
+        private PermitReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+
+                case "close" -> {
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                }
+
+                case "unwrap" -> {
+                    // callers unwrapping the driver connection (PGConnection for COPY) get it from the pool's proxy
+                    if (((Class<?>) args[0]).isInstance(target)) {
+                        return target;
+                    }
+                }
+
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(target)) {
+                        return true;
+                    }
+                }
+
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
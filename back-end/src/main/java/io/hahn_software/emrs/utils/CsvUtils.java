@@ -0,0 +1,30 @@
+package io.hahn_software.emrs.utils;
+
+public class CsvUtils {
+
+    private CsvUtils() {}
+
+
+    /**
+     * Formats a value as a CSV field , quoting it only when it is empty or contains a separator , a quote or a line break.
+     * null is written as an empty unquoted field , which PostgreSQL COPY reads back as NULL
+     */
+    public static String escape(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        boolean needsQuotes = text.isEmpty()
+                            || text.indexOf(',') >= 0
+                            || text.indexOf('"') >= 0
+                            || text.indexOf('\n') >= 0
+                            || text.indexOf('\r') >= 0;
+
+        return needsQuotes
+                ? '"' + text.replace("\"", "\"\"") + '"'
+                : text;
+    }
+}
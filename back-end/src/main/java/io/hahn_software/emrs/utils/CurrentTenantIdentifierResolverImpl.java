@@ -7,9 +7,6 @@ import org.hibernate.cfg.MultiTenancySettings;
 import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ObjectUtils;
-
-import com.trackswiftly.utils.base.utils.TenantContext;
 
 
 @Component
@@ -20,20 +17,14 @@ public class CurrentTenantIdentifierResolverImpl implements CurrentTenantIdentif
        hibernateProperties.put(MultiTenancySettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
     }
 
+    /***
+     *
+     * Called for every session and statement , the id is parsed once per request (see RequestTenant)
+     */
     @Override
     public UUID resolveCurrentTenantIdentifier() {
-        
-        String tenantIdStr = TenantContext.getTenantId();
-        if (!ObjectUtils.isEmpty(tenantIdStr)) {
-            try {
-                return UUID.fromString(tenantIdStr);
-            } catch (IllegalArgumentException e) {
-                // Handle invalid UUID format
-                return UUID.nameUUIDFromBytes(tenantIdStr.getBytes());
-            }
-        } else {
-            return UUID.nameUUIDFromBytes("BOOTSTRAP".getBytes());
-        }
+
+        return RequestTenant.get();
     }
 
     @Override
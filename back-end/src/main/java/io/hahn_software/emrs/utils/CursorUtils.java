@@ -0,0 +1,60 @@
+package io.hahn_software.emrs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public class CursorUtils {
+
+    private static final char SEPARATOR = ':';
+
+    private CursorUtils() {}
+
+
+    /** Encodes the last returned (tenantId, id) pair into an opaque url-safe cursor */
+    public static String encode(UUID tenantId, Long id) {
+
+        if (tenantId == null || id == null) {
+            return null;
+        }
+
+        String raw = tenantId.toString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Decodes a cursor produced by {@link #encode(UUID, Long)} and returns the last seen id.
+     * A cursor issued for another tenant is rejected.
+     */
+    public static Long decode(String cursor, UUID tenantId) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        UUID cursorTenantId ;
+        Long lastId ;
+
+        try {
+
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+
+            cursorTenantId = UUID.fromString(raw.substring(0, separatorIndex));
+            lastId = Long.valueOf(raw.substring(separatorIndex + 1));
+
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+        }
+
+        if (!cursorTenantId.equals(tenantId)) {
+            throw new IllegalArgumentException("Cursor does not belong to the current tenant");
+        }
+
+        return lastId ;
+    }
+}
@@ -1,15 +1,14 @@
 package io.hahn_software.emrs.utils;
 
-import java.lang.reflect.Field;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 import io.hahn_software.emrs.entities.AbstractBaseEntity;
-
+import io.hahn_software.emrs.utils.EntityMetadata.FieldAccessor;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
@@ -18,131 +17,136 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class DBUtiles {
-    
+
     private DBUtiles () {}
 
 
+    /***
+     *
+     * Shape of a dynamic update : the entity class and the (ordered) fields it sets.
+     * Updates with the same shape share the same JPQL string , so Hibernate serves it from its query plan cache
+     */
+    private record UpdateShape(Class<?> entityClass, List<String> fieldNames) {}
+
+    private static final ConcurrentMap<UpdateShape, String> UPDATE_TEMPLATES = new ConcurrentHashMap<>();
+
+
 
     public static <T> Map<String, Object> convertToMap(T entity) {
-        Map<String, Object> map = new HashMap<>();
-    
-        // Get declared fields and filter out Hibernate internal fields
-        Arrays.stream(entity.getClass().getDeclaredFields())
-            .filter(field -> !field.getName().startsWith("$$_"))  // Exclude Hibernate internal fields
-            .forEach(field -> {
-                field.setAccessible(true);
-                try {
-                    Object value = field.get(entity);
-                    // Add to map only if the value is not null or 0 (for numeric types)
-                    if (value != null && !(value instanceof Number && ((Number) value).intValue() == 0)) {
-                        map.put(field.getName(), value);
-                    }
-                } catch (IllegalAccessException e) {
-                    // Handle exception or log
-                    e.printStackTrace();
-                }
-            });
-        
+        Map<String, Object> map = new LinkedHashMap<>();
+
+        // Declared fields are resolved once per class , Hibernate internal fields are already excluded
+        for (FieldAccessor field : EntityMetadata.of(entity.getClass()).getFields()) {
+
+            Object value = field.get(entity);
+
+            // Add to map only if the value is not null or 0 (for numeric types)
+            if (value != null && !(value instanceof Number && ((Number) value).intValue() == 0)) {
+                map.put(field.name(), value);
+            }
+        }
+
         if (map.isEmpty()) {
             throw new IllegalArgumentException("No fields to update");
         }
-    
+
         return map;
     }
 
 
 
     private static boolean isEntityWithNullId(Object obj) {
-    
-        try {
-            // Check if the class is annotated as an entity (assuming a JPA Entity in jakarta package)
-            if (obj.getClass().isAnnotationPresent(Entity.class)) {
-                log.info("Object is not an entity: {}", obj.getClass().getName());
-                
-
-                Field idField = obj.getClass().getDeclaredField("id");
-                idField.setAccessible(true);
-                
-                Object idValue = idField.get(obj);
-                
-                if (idValue != null) {
-                    return false;  // `id` field is non-null, so it's a valid entity with a valid ID
-                } else {
-                    log.info("Entity {} has a null id", obj.getClass().getName());
-                }
-                return true;
-            }
-    
-            // Check for `id` field and validate if it is non-null
-            
-            
-            
-            
-        } catch (NoSuchFieldException e) {
-            log.warn("No id field found in entity {}", obj.getClass().getName(), e);
-        } catch (IllegalAccessException e) {
-            log.warn("Unable to access id field for entity {}", obj.getClass().getName(), e);
+
+        // Only JPA entities with an `id` field are concerned , plain values (String , enums , java.time ...) are
+        // filtered out before resolving any metadata , JDK classes cannot be opened for reflection anyway
+        if (!obj.getClass().isAnnotationPresent(Entity.class)) {
+            return false;
+        }
+
+        EntityMetadata metadata = EntityMetadata.of(obj.getClass());
+
+        if (metadata.getId() == null) {
+            return false;
+        }
+
+        if (metadata.getId().get(obj) != null) {
+            return false;  // `id` field is non-null, so it's a valid entity with a valid ID
         }
-    
-        return false; // Either `id` is null or entity check failed
+
+        log.debug("Entity {} has a null id", metadata.getType().getName());
+
+        return true;
     }
 
 
-    
-    private static Set<String> getValidateFieldNames(Field[] fields) {
-        
-        // @ Validate field names to prevent injection and errors
-        return Arrays.stream(fields)
-            .map(Field::getName)
-            .collect(Collectors.toSet());
+
+    /***
+     *
+     * Returns the JPQL update statement for the given entity class and set of fields ,
+     * built once per shape and cached afterwards. Parameters : one per field , :tenantId and :Ids
+     */
+    public static String updateTemplate(Class<?> entityClass, List<String> fieldNames) {
+
+        return UPDATE_TEMPLATES.computeIfAbsent(
+            new UpdateShape(entityClass, List.copyOf(fieldNames)),
+            DBUtiles::buildUpdateTemplate
+        );
     }
 
+
+
+    private static String buildUpdateTemplate(UpdateShape shape) {
+
+        EntityMetadata metadata = EntityMetadata.of(shape.entityClass());
+
+        StringBuilder jpql = new StringBuilder("UPDATE ")
+                                .append(metadata.getEntityName())
+                                .append(" c SET ");
+
+        for (String fieldName : shape.fieldNames()) {
+            jpql.append("c.").append(fieldName).append(" = :").append(fieldName).append(", ");
+        }
+
+        // Bulk updates skip @UpdateTimestamp , bump it here so readers (ETags) see the change
+        for (String fieldName : metadata.getUpdateTimestampFields()) {
+            if (!shape.fieldNames().contains(fieldName)) {
+                jpql.append("c.").append(fieldName).append(" = CURRENT_TIMESTAMP, ");
+            }
+        }
+
+        jpql.setLength(jpql.length() - 2);  // Remove last comma
+
+        // explicit tenant restriction (the caller binds :tenantId) , on the partitioned tables a bulk update
+        // then only ever touches the tenant's partition
+        jpql.append(" WHERE c.tenantId = :tenantId AND c.id IN :Ids");
+
+        log.debug("JPQL template {} : 📑" , jpql);
+
+        return jpql.toString();
+    }
+
+
+
     // Build the JPQL query dynamically based on non-null fields
     public static Query buildJPQLQueryDynamicallyForUpdate(
             AbstractBaseEntity entity ,
-            EntityManager em 
+            EntityManager em
         ) {
-        
-
-        // Get the entity class
-        Class<?> entityClass = entity.getClass();
-
-        // Retrieve the entity name dynamically
-        Entity entityAnnotation = entityClass.getAnnotation(Entity.class);
-        String entityName = (entityAnnotation != null && !entityAnnotation.name().isEmpty()) 
-                            ? entityAnnotation.name() 
-                            : entityClass.getSimpleName();
-
-        StringBuilder jpql = new StringBuilder("UPDATE " + entityName + " c SET ");
-        Map<String, Object> params = new HashMap<>();
-
-        for (Map.Entry<String, Object> entry : DBUtiles.convertToMap(entity).entrySet()) {
-            
-            String fieldName = entry.getKey();
-            Object value = entry.getValue();
-            
-            // Check if the field is a valid field and if the value is not null
-            if (DBUtiles.getValidateFieldNames(entity.getClass().getDeclaredFields()).contains(fieldName) && value != null) {
-                
-                if (DBUtiles.isEntityWithNullId(value)) {
-                    continue;
-                }
-                
-                jpql.append("c.").append(fieldName).append(" = :").append(fieldName).append(", ");
-                params.put(fieldName, value);
-            }
-        }
 
-        jpql.setLength(jpql.length() - 2);  // Remove last comma
-        jpql.append(" WHERE c.id IN :Ids");
+        Map<String, Object> params = DBUtiles.convertToMap(entity);
+
+        // Skip associations to entities that are not persisted yet
+        params.values().removeIf(DBUtiles::isEntityWithNullId);
 
+        if (params.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
 
-        log.info("JPQL {} : 📑" , jpql);
+        String jpql = updateTemplate(entity.getClass(), List.copyOf(params.keySet()));
 
+        //? Create the query from the cached template
+        Query query = em.createQuery(jpql);
 
-        //? Create the query with the base JPQL
-        Query query = em.createQuery(jpql.toString());
-    
         //$ Set parameters for non-null fields
         for (Map.Entry<String, Object> param : params.entrySet()) {
             query.setParameter(param.getKey(), param.getValue());
@@ -150,4 +154,4 @@ public class DBUtiles {
 
         return query ;
     }
-}
\ No newline at end of file
+}
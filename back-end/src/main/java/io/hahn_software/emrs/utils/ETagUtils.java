@@ -0,0 +1,24 @@
+package io.hahn_software.emrs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import org.springframework.util.DigestUtils;
+
+public class ETagUtils {
+
+    private ETagUtils() {}
+
+
+    /** Weak validator (W/"...") derived from the given parts , equal parts give equal ETags */
+    public static String weak(Object... parts) {
+
+        StringJoiner joined = new StringJoiner("|");
+
+        for (Object part : parts) {
+            joined.add(String.valueOf(part));
+        }
+
+        return "W/\"" + DigestUtils.md5DigestAsHex(joined.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,171 @@
+package io.hahn_software.emrs.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Entity;
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * Reflection metadata of a class , resolved once per class and kept for the life of the class loader.
+ * Field values are read through MethodHandles instead of Field#get + setAccessible on every call.
+ */
+@Slf4j
+public final class EntityMetadata {
+
+
+    public record FieldAccessor(String name, MethodHandle getter) {
+
+        public Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to read field " + name, e);
+            }
+        }
+    }
+
+
+    private static final ClassValue<EntityMetadata> REGISTRY = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return new EntityMetadata(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+
+    private final Class<?> type ;
+
+    private final boolean entity ;
+
+    private final String entityName ;
+
+    private final List<FieldAccessor> fields ;
+
+    private final FieldAccessor id ;
+
+    private final List<String> updateTimestampFields ;
+
+
+
+    private EntityMetadata(Class<?> type) {
+
+        this.type = type;
+
+        Entity entityAnnotation = type.getAnnotation(Entity.class);
+        this.entity = entityAnnotation != null;
+        this.entityName = (entityAnnotation != null && !entityAnnotation.name().isEmpty())
+                            ? entityAnnotation.name()
+                            : type.getSimpleName();
+
+        List<FieldAccessor> accessors = new ArrayList<>();
+        List<String> timestamps = new ArrayList<>();
+        FieldAccessor idAccessor = null;
+
+        MethodHandles.Lookup lookup = privateLookup(type);
+
+        Field[] declaredFields = lookup == null ? new Field[0] : type.getDeclaredFields();
+
+        for (Field field : declaredFields) {
+
+            // Exclude static fields and Hibernate internal fields
+            if (Modifier.isStatic(field.getModifiers()) || field.getName().startsWith("$$_")) {
+                continue;
+            }
+
+            FieldAccessor accessor = accessor(lookup, field);
+
+            if (accessor == null) {
+                continue;
+            }
+
+            accessors.add(accessor);
+
+            if ("id".equals(field.getName())) {
+                idAccessor = accessor;
+            }
+
+            if (field.isAnnotationPresent(UpdateTimestamp.class)) {
+                timestamps.add(field.getName());
+            }
+        }
+
+        this.fields = Collections.unmodifiableList(accessors);
+        this.id = idAccessor;
+        this.updateTimestampFields = Collections.unmodifiableList(timestamps);
+
+        log.debug("Resolved metadata of {} : {} fields 🔖", type.getName(), accessors.size());
+    }
+
+
+
+    public static EntityMetadata of(Class<?> type) {
+        return REGISTRY.get(type);
+    }
+
+
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public boolean isEntity() {
+        return entity;
+    }
+
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /** Declared , non static fields in declaration order */
+    public List<FieldAccessor> getFields() {
+        return fields;
+    }
+
+    /** Accessor of the declared id field , null when the class has none */
+    public FieldAccessor getId() {
+        return id;
+    }
+
+    /** Declared fields annotated with @UpdateTimestamp , bulk updates have to set them themselves */
+    public List<String> getUpdateTimestampFields() {
+        return updateTimestampFields;
+    }
+
+
+
+    private static MethodHandles.Lookup privateLookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            log.warn("Unable to access the fields of {}", type.getName(), e);
+            return null;
+        }
+    }
+
+
+    private static FieldAccessor accessor(MethodHandles.Lookup lookup, Field field) {
+        try {
+            return new FieldAccessor(
+                field.getName(),
+                lookup.unreflectGetter(field).asType(GETTER_TYPE)
+            );
+        } catch (IllegalAccessException e) {
+            log.warn("Unable to access field {} of {}", field.getName(), field.getDeclaringClass().getName(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.hahn_software.emrs.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.util.ObjectUtils;
+
+import com.trackswiftly.utils.base.utils.TenantContext;
+
+
+
+/***
+ *
+ * Tenant of the current request as a UUID , parsed once when the tenant is set and then read as a field.
+ * TenantContext (the raw id , shared with the utils library) stays the source of truth : the parsed UUID is only
+ * used while TenantContext still holds the very string it was parsed from , a tenant set around this class is
+ * parsed again instead of being missed. Parsed ids are interned , every request of a tenant shares one UUID.
+ *
+ * Set by the authentication (RolesGrantedAuthoritiesConverter) , cleared at the end of the request (RequestTenantFilter).
+ */
+public final class RequestTenant {
+
+    private RequestTenant() {}
+
+
+    /** Tenant of the work that runs outside of any request (startup , schedulers) */
+    public static final UUID BOOTSTRAP = UUID.nameUUIDFromBytes("BOOTSTRAP".getBytes(StandardCharsets.UTF_8));
+
+    /** Distinct tenant ids kept parsed , the table is reset when it grows past this */
+    private static final int MAX_INTERNED = 10_000;
+
+
+    private record Resolved(String raw, UUID id) {}
+
+
+    private static final ThreadLocal<Resolved> CURRENT = new ThreadLocal<>();
+
+    private static final Map<String, UUID> INTERNED = new ConcurrentHashMap<>();
+
+
+
+    /***
+     *
+     * Sets the tenant of the current thread , null clears it
+     */
+    public static UUID set(String tenantId) {
+
+        if (tenantId == null) {
+            clear();
+            return BOOTSTRAP;
+        }
+
+        UUID id = parse(tenantId);
+
+        TenantContext.setTenantId(tenantId);
+        CURRENT.set(new Resolved(tenantId, id));
+
+        return id;
+    }
+
+
+
+    public static UUID get() {
+
+        String raw = TenantContext.getTenantId();
+        Resolved resolved = CURRENT.get();
+
+        if (resolved != null && resolved.raw() == raw) {
+            return resolved.id();
+        }
+
+        if (ObjectUtils.isEmpty(raw)) {
+            return BOOTSTRAP;
+        }
+
+        UUID id = parse(raw);
+        CURRENT.set(new Resolved(raw, id));
+
+        return id;
+    }
+
+
+
+    public static void clear() {
+        CURRENT.remove();
+        TenantContext.clear();
+    }
+
+
+
+    /**
+     * A UUID as is , any other id is mapped to a stable name based UUID (computed once per id)
+     */
+    static UUID parse(String tenantId) {
+
+        UUID id = INTERNED.get(tenantId);
+
+        if (id != null) {
+            return id;
+        }
+
+        if (INTERNED.size() >= MAX_INTERNED) {
+            INTERNED.clear();
+        }
+
+        return INTERNED.computeIfAbsent(tenantId, RequestTenant::toUuid);
+    }
+
+
+
+    private static UUID toUuid(String tenantId) {
+        try {
+            return UUID.fromString(tenantId);
+        } catch (IllegalArgumentException e) {
+            // Handle invalid UUID format
+            return UUID.nameUUIDFromBytes(tenantId.getBytes());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.hahn_software.emrs.utils;
+
+
+
+/***
+ *
+ * Normalises a SQL statement to its shape : literals and parameters become ? , IN lists and multi-row VALUES
+ * collapse to a single element , comments are dropped and whitespace is squeezed , so the statements that only differ by their values
+ * (or by the size of a batch) share one fingerprint. No literal survives , fingerprints are safe to expose.
+ */
+public class SqlFingerprint {
+
+    private SqlFingerprint() {}
+
+
+    public static String of(String sql) {
+
+        if (sql == null) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(Math.min(sql.length(), 1024));
+
+        int length = sql.length();
+        int i = 0;
+
+        while (i < length) {
+
+            char c = sql.charAt(i);
+
+            if (c == '\'') {
+                // string literal , '' is an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+
+            } else if (Character.isDigit(c) && !isIdentifierPart(out)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                // line comment , dropped like whitespace
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                appendSpace(out);
+
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                // block comment (hibernate.use_sql_comments , query hints) , dropped like whitespace
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                appendSpace(out);
+
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                appendSpace(out);
+
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+
+        return collapseLists(out.toString().strip());
+    }
+
+
+
+    /**
+     * (?, ?, ?) -> (?...) and (..), (..), (..) -> (..)...
+     */
+    private static String collapseLists(String sql) {
+
+        return collapseRepeatedGroups(
+            sql.replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?...)")
+        );
+    }
+
+
+
+    private static String collapseRepeatedGroups(String sql) {
+
+        StringBuilder out = new StringBuilder(sql.length());
+
+        int i = 0;
+
+        while (i < sql.length()) {
+
+            char c = sql.charAt(i);
+
+            int end = c == '(' ? closingParenthesis(sql, i) : -1;
+
+            if (end < 0) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            String group = sql.substring(i, end + 1);
+            int next = end + 1;
+            boolean repeated = false;
+
+            for (int after = afterComma(sql, next); after >= 0 && sql.startsWith(group, after); after = afterComma(sql, next)) {
+                next = after + group.length();
+                repeated = true;
+            }
+
+            out.append('(')
+                .append(collapseRepeatedGroups(group.substring(1, group.length() - 1)))
+                .append(')');
+
+            if (repeated) {
+                out.append("...");
+            }
+
+            i = next;
+        }
+
+        return out.toString();
+    }
+
+
+
+    private static int closingParenthesis(String sql, int open) {
+
+        int depth = 0;
+
+        for (int i = open; i < sql.length(); i++) {
+            if (sql.charAt(i) == '(') {
+                depth++;
+            } else if (sql.charAt(i) == ')' && --depth == 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+
+
+    /** Position after the ", " following index , -1 when there is no comma there */
+    private static int afterComma(String sql, int index) {
+
+        int i = index;
+
+        while (i < sql.length() && sql.charAt(i) == ' ') {
+            i++;
+        }
+
+        if (i >= sql.length() || sql.charAt(i) != ',') {
+            return -1;
+        }
+
+        i++;
+
+        while (i < sql.length() && sql.charAt(i) == ' ') {
+            i++;
+        }
+
+        return i;
+    }
+
+
+
+    private static void appendSpace(StringBuilder out) {
+
+        if (!out.isEmpty() && out.charAt(out.length() - 1) != ' ') {
+            out.append(' ');
+        }
+    }
+
+
+
+    private static boolean isIdentifierPart(StringBuilder out) {
+
+        if (out.isEmpty()) {
+            return false;
+        }
+
+        char previous = out.charAt(out.length() - 1);
+
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$';
+    }
+}
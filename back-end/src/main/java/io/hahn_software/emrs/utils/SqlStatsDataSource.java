@@ -0,0 +1,290 @@
+package io.hahn_software.emrs.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+
+
+/***
+ *
+ * Times the statements executed on the connections it hands out and records them in the SqlStatsRegistry.
+ * Only the execute* calls and ResultSet.next are intercepted , the cost per statement is a couple of
+ * System.nanoTime calls and the registry's lock free counters.
+ * Statement.getConnection and ResultSet.getStatement return the proxies , never the objects behind them :
+ * a caller closing or reusing what it got back stays on the instrumented path.
+ */
+public class SqlStatsDataSource extends DelegatingDataSource {
+
+
+    private final SqlStatsRegistry registry ;
+
+
+
+    public SqlStatsDataSource(DataSource target, SqlStatsRegistry registry) {
+        super(target);
+        this.registry = registry;
+    }
+
+
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+
+
+    private static boolean isObjectMethod(Method method) {
+        return method.getName().equals("equals") && method.getParameterCount() == 1
+            || method.getName().equals("hashCode") && method.getParameterCount() == 0;
+    }
+
+
+    /** Identity semantics , the proxies are used as map keys by the pool and by Hibernate */
+    private static Object objectMethod(Object proxy, Method method, Object[] args) {
+        return method.getName().equals("equals")
+                ? proxy == args[0]
+                : System.identityHashCode(proxy);
+    }
+
+
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target ;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+
+                case "prepareStatement" -> {
+                    return proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) SqlStatsDataSource.invoke(target, method, args), (Connection) proxy, (String) args[0]));
+                }
+
+                case "prepareCall" -> {
+                    return proxy(CallableStatement.class,
+                        new StatementHandler((Statement) SqlStatsDataSource.invoke(target, method, args), (Connection) proxy, (String) args[0]));
+                }
+
+                case "createStatement" -> {
+                    return proxy(Statement.class,
+                        new StatementHandler((Statement) SqlStatsDataSource.invoke(target, method, args), (Connection) proxy, null));
+                }
+
+                default -> {
+                    if (isObjectMethod(method)) {
+                        return objectMethod(proxy, method, args);
+                    }
+                    // unwrap (PGConnection for COPY) , close ... go to the pooled connection
+                    return SqlStatsDataSource.invoke(target, method, args);
+                }
+            }
+        }
+    }
+
+
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target ;
+
+        // the proxy that created this statement
+        private final Connection connection ;
+
+        // null for a plain Statement , the SQL is then the argument of execute*
+        private final String preparedSql ;
+
+        private StatementHandler(Statement target, Connection connection, String preparedSql) {
+            this.target = target;
+            this.connection = connection;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            String name = method.getName();
+
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, method, args);
+            }
+
+            if (!name.startsWith("execute")) {
+
+                switch (name) {
+
+                    case "getConnection" -> {
+                        return connection;
+                    }
+
+                    case "getResultSet" -> {
+                        return countRows((ResultSet) SqlStatsDataSource.invoke(target, method, args), (Statement) proxy, preparedSql);
+                    }
+
+                    case "getGeneratedKeys" -> {
+                        return countRows((ResultSet) SqlStatsDataSource.invoke(target, method, args), (Statement) proxy, null);
+                    }
+
+                    default -> {
+                        return SqlStatsDataSource.invoke(target, method, args);
+                    }
+                }
+            }
+
+            String sql = preparedSql != null || args == null || args.length == 0 || !(args[0] instanceof String text)
+                        ? preparedSql
+                        : text;
+
+            long start = System.nanoTime();
+
+            Object result = SqlStatsDataSource.invoke(target, method, args);
+
+            long elapsed = System.nanoTime() - start;
+
+            if (sql != null) {
+                registry.record(sql, elapsed, affectedRows(result));
+            }
+
+            return result instanceof ResultSet resultSet
+                    ? countRows(resultSet, (Statement) proxy, sql)
+                    : result;
+        }
+    }
+
+
+
+    private static long affectedRows(Object result) {
+
+        if (result instanceof Integer rows) {
+            return rows;
+        }
+
+        if (result instanceof Long rows) {
+            return rows;
+        }
+
+        long total = 0;
+
+        if (result instanceof int[] batch) {
+            for (int rows : batch) {
+                total += Math.max(rows, 0);
+            }
+        } else if (result instanceof long[] batch) {
+            for (long rows : batch) {
+                total += Math.max(rows, 0);
+            }
+        }
+
+        return total;
+    }
+
+
+
+    /** The rows read are recorded when the SQL is known , the result set is wrapped either way for getStatement */
+    private ResultSet countRows(ResultSet resultSet, Statement statement, String sql) {
+
+        if (resultSet == null) {
+            return null;
+        }
+
+        return proxy(ResultSet.class, new ResultSetHandler(resultSet, statement, sql));
+    }
+
+
+
+    private final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target ;
+
+        // the proxy that returned this result set
+        private final Statement statement ;
+
+        private final String sql ;
+
+        private long rows ;
+
+        private boolean recorded ;
+
+        private ResultSetHandler(ResultSet target, Statement statement, String sql) {
+            this.target = target;
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            if (isObjectMethod(method)) {
+                return objectMethod(proxy, method, args);
+            }
+
+            if (method.getName().equals("getStatement")) {
+                return statement;
+            }
+
+            Object result = SqlStatsDataSource.invoke(target, method, args);
+
+            switch (method.getName()) {
+
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) {
+                        rows++;
+                    }
+                }
+
+                case "close" -> {
+                    if (!recorded && sql != null) {
+                        recorded = true;
+                        registry.recordRows(sql, rows);
+                    }
+                }
+
+                default -> {
+                    // not counted
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package io.hahn_software.emrs.utils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.extern.slf4j.Slf4j;
+
+
+
+/***
+ *
+ * In-process statistics per SQL fingerprint (see SqlFingerprint) : executions , total / max time , latency percentiles
+ * and rows returned or affected. Recording is lock free (adders and an atomic log-linear histogram per fingerprint) ,
+ * the fingerprint of a statement is computed once per distinct SQL string and cached.
+ */
+@Slf4j
+public class SqlStatsRegistry {
+
+
+    public static final String OTHER = "<other>";
+
+
+    /** Fingerprints beyond this are recorded under OTHER , memory stays bounded whatever the statements */
+    private final int maxFingerprints;
+
+    /** Distinct SQL strings whose fingerprint is cached , the cache is reset when it grows past this */
+    private final int maxCachedStatements;
+
+
+    public enum Order {
+        TOTAL, COUNT, MAX, MEAN, P99, ROWS
+    }
+
+
+    /**
+     * A point in time view of a fingerprint , times in milliseconds
+     */
+    public record Snapshot(
+        String fingerprint,
+        long count,
+        double totalMs,
+        double meanMs,
+        double maxMs,
+        double p50Ms,
+        double p95Ms,
+        double p99Ms,
+        long rows
+    ) {}
+
+
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+
+
+    public SqlStatsRegistry(int maxFingerprints, int maxCachedStatements) {
+        this.maxFingerprints = maxFingerprints;
+        this.maxCachedStatements = maxCachedStatements;
+    }
+
+
+
+    public void record(String sql, long nanos, long rows) {
+        stats(sql).record(nanos, rows);
+    }
+
+
+
+    /** Rows read from a result set , counted once it is closed */
+    public void recordRows(String sql, long rows) {
+        stats(sql).rows.add(rows);
+    }
+
+
+
+    private Stats stats(String sql) {
+
+        String fingerprint = fingerprints.get(sql);
+
+        if (fingerprint == null) {
+
+            if (fingerprints.size() >= maxCachedStatements) {
+                fingerprints.clear();
+            }
+
+            fingerprint = SqlFingerprint.of(sql);
+            fingerprints.put(sql, fingerprint);
+        }
+
+        Stats current = stats.get(fingerprint);
+
+        if (current != null) {
+            return current;
+        }
+
+        if (stats.size() >= maxFingerprints) {
+            return stats.computeIfAbsent(OTHER, key -> new Stats());
+        }
+
+        return stats.computeIfAbsent(fingerprint, key -> new Stats());
+    }
+
+
+
+    public List<Snapshot> top(int limit, Order order) {
+
+        Comparator<Snapshot> comparator = switch (order) {
+            case COUNT -> Comparator.comparingLong(Snapshot::count);
+            case MAX -> Comparator.comparingDouble(Snapshot::maxMs);
+            case MEAN -> Comparator.comparingDouble(Snapshot::meanMs);
+            case P99 -> Comparator.comparingDouble(Snapshot::p99Ms);
+            case ROWS -> Comparator.comparingLong(Snapshot::rows);
+            case TOTAL -> Comparator.comparingDouble(Snapshot::totalMs);
+        };
+
+        return stats.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(comparator.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+
+
+    public int size() {
+        return stats.size();
+    }
+
+
+
+    public void reset() {
+        stats.clear();
+        log.info("SQL statistics reset ✅");
+    }
+
+
+
+    private static final class Stats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder rows = new LongAdder();
+
+        private final AtomicLongArray histogram = new AtomicLongArray(LatencyBuckets.COUNT);
+
+
+        void record(long nanos, long rowCount) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram.incrementAndGet(LatencyBuckets.index(TimeUnit.NANOSECONDS.toMicros(nanos)));
+
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+        }
+
+
+        Snapshot snapshot(String fingerprint) {
+
+            long executions = count.sum();
+            long total = totalNanos.sum();
+
+            long[] buckets = new long[histogram.length()];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+
+            double max = millis(maxNanos.get());
+
+            return new Snapshot(
+                fingerprint,
+                executions,
+                millis(total),
+                executions == 0 ? 0 : millis(total / executions),
+                max,
+                percentile(buckets, 0.50, max),
+                percentile(buckets, 0.95, max),
+                percentile(buckets, 0.99, max),
+                rows.sum()
+            );
+        }
+
+
+        // a bucket's upper bound can be above the slowest execution it holds
+        private static double percentile(long[] buckets, double percentile, double maxMs) {
+            return Math.min(LatencyBuckets.percentileMicros(buckets, percentile) / 1000.0, maxMs);
+        }
+
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+
+
+    /***
+     *
+     * Log-linear latency buckets in microseconds : 4 buckets per power of two , so a percentile is off by 25 % at most
+     */
+    static final class LatencyBuckets {
+
+        private LatencyBuckets() {}
+
+        // up to 2^40 µs , far beyond any statement timeout
+        static final int COUNT = 160;
+
+
+        static int index(long micros) {
+
+            if (micros < 4) {
+                return (int) Math.max(micros, 0);
+            }
+
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >>> (exponent - 2)) & 3);
+
+            return Math.min((exponent - 1) * 4 + sub, COUNT - 1);
+        }
+
+
+        /** Upper bound of a bucket */
+        static long upperBound(int index) {
+
+            if (index < 4) {
+                return index;
+            }
+
+            int exponent = index / 4 + 1;
+            long lower = (4L + index % 4) << (exponent - 2);
+
+            return lower + (1L << (exponent - 2)) - 1;
+        }
+
+
+        static long percentileMicros(long[] buckets, double percentile) {
+
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return upperBound(i);
+                }
+            }
+
+            return upperBound(buckets.length - 1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.hahn_software.emrs.utils;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.CounterDimension;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+
+
+/***
+ *
+ * Accumulates the changes to apply on the per-tenant task counters during one write operation.
+ * Keys are kept sorted so concurrent transactions always lock the counter rows in the same order.
+ */
+public class TaskCounterDeltas {
+
+
+    public record CounterKey(CounterDimension dimension, String bucket) implements Comparable<CounterKey> {
+
+        @Override
+        public int compareTo(CounterKey other) {
+            int byDimension = dimension.compareTo(other.dimension);
+            return byDimension != 0 ? byDimension : bucket.compareTo(other.bucket);
+        }
+    }
+
+
+    /**
+     * Counted fields of a task as stored , read (and locked) before the task is changed or deleted
+     */
+    public record CountedFields(TaskStatus status, TaskPriority priority, UUID assignToUserId) {}
+
+
+    private final Map<CounterKey, Long> deltas = new TreeMap<>();
+
+
+
+    public TaskCounterDeltas taskAdded(Task task) {
+        return count(new CountedFields(task.getStatus(), task.getPriority(), task.getAssignToUserId()), 1);
+    }
+
+
+    public TaskCounterDeltas taskRemoved(CountedFields previous) {
+        return count(previous, -1);
+    }
+
+
+    /**
+     * A partial update : null fields of the patch are left unchanged
+     */
+    public TaskCounterDeltas taskChanged(CountedFields previous, Task patch) {
+
+        CountedFields current = new CountedFields(
+            patch.getStatus() != null ? patch.getStatus() : previous.status(),
+            patch.getPriority() != null ? patch.getPriority() : previous.priority(),
+            patch.getAssignToUserId() != null ? patch.getAssignToUserId() : previous.assignToUserId()
+        );
+
+        if (current.equals(previous)) {
+            return this;
+        }
+
+        count(previous, -1);
+        return count(current, 1);
+    }
+
+
+    /** Whether a partial update with this patch can move a task between buckets */
+    public static boolean changesCountedFields(Task patch) {
+        return patch.getStatus() != null
+            || patch.getPriority() != null
+            || patch.getAssignToUserId() != null;
+    }
+
+
+
+    private TaskCounterDeltas count(CountedFields fields, long delta) {
+
+        add(CounterDimension.STATUS, fields.status(), delta);
+        add(CounterDimension.PRIORITY, fields.priority(), delta);
+        return add(CounterDimension.ASSIGNEE, fields.assignToUserId(), delta);
+    }
+
+
+
+    public TaskCounterDeltas add(CounterDimension dimension, Object bucket, long delta) {
+
+        if (bucket == null || delta == 0) {
+            return this;
+        }
+
+        String bucketName = bucket instanceof Enum<?> e ? e.name() : bucket.toString();
+
+        deltas.merge(new CounterKey(dimension, bucketName), delta, Long::sum);
+
+        return this;
+    }
+
+
+
+    /** Returns the non zero deltas , sorted by dimension and bucket */
+    public Map<CounterKey, Long> asMap() {
+
+        deltas.values().removeIf(delta -> delta == 0);
+
+        return Collections.unmodifiableMap(deltas);
+    }
+
+
+    public boolean isEmpty() {
+        return asMap().isEmpty();
+    }
+}
@@ -1,5 +1,10 @@
 package io.hahn_software.emrs.utils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,27 +12,147 @@ import org.slf4j.LoggerFactory;
 import com.trackswiftly.utils.exception.UnableToProccessIteamException;
 
 
+
+/***
+ *
+ * Tenant guard , runs on every statement Hibernate prepares : a SELECT without a tenant_id condition is rejected.
+ * Hibernate reuses the same SQL strings , so the verdict is computed once per distinct statement and cached.
+ * The checks themselves are case insensitive and allocation free (no lowercased copy of the statement).
+ */
 public class TenantStatementInspector implements StatementInspector{
-    
+
 
     private static final Logger logger = LoggerFactory.getLogger(TenantStatementInspector.class);
 
+
+    /** Distinct statements whose verdict is kept , the cache is reset when it grows past this */
+    private static final int MAX_CACHED_STATEMENTS = 2048;
+
+    /** Only one cache reset out of this many is logged */
+    private static final long LOG_SAMPLE_RATE = 1000;
+
+    private static final String TENANT_ID = "tenant_id";
+
+
+    // Hibernate instantiates the inspector itself , state shared with the metrics binder is static
+    private static final Map<String, Boolean> VERDICTS = new ConcurrentHashMap<>();
+
+    private static final LongAdder CHECKED = new LongAdder();
+
+    private static final LongAdder REJECTED = new LongAdder();
+
+    private static final AtomicLong RESETS = new AtomicLong();
+
+
+
     @Override
     public String inspect(String sql) {
-       logger.info("Generated SQL ✅: {}", sql);
 
-       String lowerSql = sql.toLowerCase();
+        CHECKED.increment();
 
-       // Ignore sequence fetch queries and insert statements
-       if (lowerSql.startsWith("select nextval") || lowerSql.startsWith("insert")) {
-        return sql;
-       }
+        Boolean allowed = VERDICTS.get(sql);
 
-        if (lowerSql.startsWith("select") && !lowerSql.contains("tenant_id")) {
+        if (allowed == null) {
+            allowed = isAllowed(sql);
+            cache(sql, allowed);
+        }
+
+        if (!allowed) {
+            REJECTED.increment();
             throw new UnableToProccessIteamException("Generated query does not contain tenant_id condition: " + sql);
         }
 
         return sql;
+    }
+
+
+
+    private static boolean isAllowed(String sql) {
+
+        int start = skipWhitespace(sql);
+
+        // Ignore sequence fetch queries and insert statements
+        if (startsWith(sql, start, "insert")) {
+            return true;
+        }
+
+        if (!startsWith(sql, start, "select")) {
+            return true;
+        }
+
+        if (startsWith(sql, skipWhitespace(sql, start + "select".length()), "nextval")) {
+            return true;
+        }
+
+        return containsIgnoreCase(sql, start, TENANT_ID);
+    }
+
+
+
+    private static void cache(String sql, boolean allowed) {
+
+        if (VERDICTS.size() >= MAX_CACHED_STATEMENTS) {
+            // statements with inlined literals would grow the cache forever , start over instead
+            VERDICTS.clear();
+
+            if (RESETS.getAndIncrement() % LOG_SAMPLE_RATE == 0) {
+                logger.warn("Statement verdict cache reset after {} distinct statements", MAX_CACHED_STATEMENTS);
+            }
+        }
+
+        VERDICTS.put(sql, allowed);
+
+        // Each distinct statement is logged once , when it is first seen
+        logger.debug("Generated SQL {} : {}", allowed ? "✅" : "❌", sql);
+    }
+
+
+
+    private static int skipWhitespace(String sql) {
+        return skipWhitespace(sql, 0);
+    }
+
+    private static int skipWhitespace(String sql, int from) {
+        int i = from;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+
+    private static boolean startsWith(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+
+
+    private static boolean containsIgnoreCase(String sql, int from, String token) {
+
+        int last = sql.length() - token.length();
+
+        for (int i = from; i <= last; i++) {
+            if (sql.regionMatches(true, i, token, 0, token.length())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+
+    /** Statements inspected since startup , cached verdicts included */
+    public static long checkedCount() {
+        return CHECKED.sum();
+    }
+
+    /** Statements rejected for missing a tenant_id condition */
+    public static long rejectedCount() {
+        return REJECTED.sum();
+    }
 
+    /** Distinct statements whose verdict is currently cached */
+    public static int cachedCount() {
+        return VERDICTS.size();
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,22 @@
 package io.hahn_software.emrs.web;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -15,17 +24,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.trackswiftly.utils.base.utils.TenantContext;
 import com.trackswiftly.utils.dtos.OperationResult;
 import com.trackswiftly.utils.dtos.PageDTO;
 
+import io.hahn_software.emrs.dtos.BulkImportResult;
+import io.hahn_software.emrs.dtos.ChunkedWriteResult;
+import io.hahn_software.emrs.dtos.CursorPageDTO;
+import io.hahn_software.emrs.dtos.PatchResult;
+import io.hahn_software.emrs.dtos.TaskArchivePolicyDto;
+import io.hahn_software.emrs.dtos.TaskFilter;
+import io.hahn_software.emrs.dtos.TaskJobDto;
+import io.hahn_software.emrs.dtos.TaskPatchDto;
 import io.hahn_software.emrs.dtos.TaskRequestDto;
 import io.hahn_software.emrs.dtos.TaskResponseDto;
+import io.hahn_software.emrs.dtos.TaskStatsDto;
+import io.hahn_software.emrs.dtos.UpsertResult;
 import io.hahn_software.emrs.dtos.interfaces.CreateValidationGroup;
 import io.hahn_software.emrs.dtos.interfaces.UpdateValidationGroup;
+import io.hahn_software.emrs.enums.ExportFormat;
+import io.hahn_software.emrs.enums.SortDirection;
+import io.hahn_software.emrs.enums.TaskSort;
+import io.hahn_software.emrs.enums.UpsertConflictAction;
+import io.hahn_software.emrs.services.TaskArchiveService;
+import io.hahn_software.emrs.services.TaskChunkedWriteService;
+import io.hahn_software.emrs.services.TaskImportService;
+import io.hahn_software.emrs.services.TaskJobService;
 import io.hahn_software.emrs.services.TaskService;
+import io.hahn_software.emrs.services.TaskStreamHub;
+import io.hahn_software.emrs.utils.RequestTenant;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,13 +70,39 @@ import lombok.extern.slf4j.Slf4j;
 public class TaskController {
 
 
+    /** Polled reads may be stored by the client , but must be revalidated (If-None-Match) before reuse */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+
     private final TaskService taskService;
 
+    private final TaskImportService taskImportService;
+
+    private final TaskStreamHub taskStreamHub;
+
+    private final TaskChunkedWriteService taskChunkedWriteService;
+
+    private final TaskJobService taskJobService;
+
+    private final TaskArchiveService taskArchiveService;
+
 
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(
+        TaskService taskService,
+        TaskImportService taskImportService,
+        TaskStreamHub taskStreamHub,
+        TaskChunkedWriteService taskChunkedWriteService,
+        TaskJobService taskJobService,
+        TaskArchiveService taskArchiveService
+    ) {
         this.taskService = taskService;
+        this.taskImportService = taskImportService;
+        this.taskStreamHub = taskStreamHub;
+        this.taskChunkedWriteService = taskChunkedWriteService;
+        this.taskJobService = taskJobService;
+        this.taskArchiveService = taskArchiveService;
     }
 
 
@@ -58,29 +118,353 @@ public class TaskController {
 
 
 
+    @PostMapping("/chunked")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Validated(CreateValidationGroup.class)
+    public ResponseEntity<ChunkedWriteResult> createTasksInChunks(
+        @Parameter(
+            description = "Tasks committed per transaction , defaults to tasks.chunked.chunk-size"
+        )
+        @RequestParam(required = false) Integer chunkSize,
+        @RequestBody @Valid List<TaskRequestDto> taskRequests
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Same as POST /tasks , committed chunk by chunk : a failed chunk does not undo the committed ones ,
+             * the result tells which chunks and which items were written.
+             */
+            taskChunkedWriteService.createInChunks(taskRequests, chunkSize)
+        );
+    }
+
+
+
+    @PostMapping("/upsert")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Validated(CreateValidationGroup.class)
+    public ResponseEntity<UpsertResult> upsertTasks(
+        @Parameter(
+            description = "UPDATE overwrites the task that already has the name , NOTHING leaves it as it is"
+        )
+        @RequestParam(defaultValue = "UPDATE") UpsertConflictAction onConflict,
+        @RequestBody @Valid List<TaskRequestDto> taskRequests
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Creates or updates the tasks by name (same payload as POST /tasks) ,
+             * returns the id and the outcome (CREATED , UPDATED , SKIPPED) of each element.
+             */
+            taskService.upsertEntities(taskRequests, onConflict)
+        );
+    }
+
+
+
+    @PostMapping(
+        value = "/import",
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<BulkImportResult> importTasks(
+        HttpServletRequest request
+    ) throws IOException {
+
+        return ResponseEntity.ok(
+            /**
+             * Bulk ingest : the body (same payload as POST /tasks , or NDJSON) is streamed , not bound in memory.
+             * Valid rows are imported , invalid ones are reported by index.
+             */
+            taskImportService.importTasks(request.getInputStream())
+        );
+    }
+
+
+
     @GetMapping
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<PageDTO<TaskResponseDto>> getTasksWithPagination(
         @RequestParam int page,
-        @RequestParam int pageSize
+        @RequestParam int pageSize,
+        @Parameter(
+            description = "Count the tasks table instead of reading the per-tenant counters"
+        )
+        @RequestParam(defaultValue = "false") boolean exact,
+        @ParameterObject TaskFilter filter,
+        @Parameter(
+            description = "Sort key , each one is only accepted with the filter combinations an index serves (400 otherwise)"
+        )
+        @RequestParam(defaultValue = "ID") TaskSort sort,
+        @RequestParam(defaultValue = "ASC") SortDirection direction,
+        WebRequest webRequest
     ) {
 
-        return ResponseEntity.ok(
+        // computed before the body : a change committed in between costs one extra full response , never a stale 304
+        String eTag = taskService.pageETag(filter, sort, direction, page, pageSize, exact);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(
 
             /**
              * Retrieves a paginated list of tasks.
              *
              * @param page     the page number to retrieve (0-based index)
              * @param pageSize the number of tasks per page
+             * @param exact    whether the total is counted instead of read from the counters
+             * @param filter   optional status , priority , assignee and estimate date range conditions
+             * @param sort     the sort key , ties are broken by id
              * @return a PageDTO containing the paginated list of TaskResponseDto
              */
-            taskService.pageEntities(page, pageSize)
+            taskService.pageEntities(filter, sort, direction, page, pageSize, exact)
+        );
+    }
+
+
+
+    @GetMapping(params = "!page")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<CursorPageDTO<TaskResponseDto>> getTasksWithCursor(
+        @Parameter(
+            description = "Opaque cursor returned as nextCursor by the previous page , omit it to get the first page"
+        )
+        @RequestParam(required = false) String cursor,
+        @RequestParam int pageSize
+    ) {
+
+        return ResponseEntity.ok(
+
+            /**
+             * Retrieves a page of tasks using keyset pagination.
+             *
+             * @param cursor   the nextCursor of the previous page, null for the first page
+             * @param pageSize the number of tasks per page
+             * @return a CursorPageDTO containing the tasks and the cursor of the next page
+             */
+            taskService.pageEntities(cursor, pageSize)
+        );
+    }
+
+
+
+
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<TaskResponseDto>> searchTasks(
+        @Parameter(
+            description = "Words to look for in the task name and description , supports \"quoted phrases\" , or and -excluded words",
+            required = true,
+            example = "invoice -draft"
+        )
+        @RequestParam String q,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int pageSize
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Retrieves the tasks matching the keyword , best matches first.
+             */
+            taskService.search(q, page, pageSize)
+        );
+    }
+
+
+
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<SseEmitter> streamTaskChanges() {
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                // tells the nginx proxy to pass the events through as they come
+                .header("X-Accel-Buffering", "no")
+                .body(
+                    /**
+                     * Server-Sent Events of the caller's tenant , sent once the change is committed :
+                     * created / updated / deleted with the ids , or changed with only a count after a bulk change (reload).
+                     */
+                    taskStreamHub.subscribe()
+                );
+    }
+
+
+
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskStatsDto> getTaskStats() {
+
+        return ResponseEntity.ok(
+            /**
+             * Task counts per status , per priority and per assignee , served from the per-tenant counters.
+             */
+            taskService.stats()
         );
     }
 
 
 
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+        @Parameter(
+            description = "NDJSON (one task per line) or CSV"
+        )
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format
+    ) {
+
+        /**
+         * The body is written on an async thread , carry the caller's tenant over to it
+         */
+        String tenantId = TenantContext.getTenantId();
+
+        StreamingResponseBody body = out -> {
+
+            RequestTenant.set(tenantId);
+
+            try {
+                taskService.exportEntities(format, out);
+            } finally {
+                RequestTenant.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + format.getExtension() + "\"")
+                .body(body);
+    }
+
+
+
+
+    @DeleteMapping
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskJobDto> deleteTasksWhere(
+        @ParameterObject TaskFilter filter
+    ) {
+
+        /**
+         * Deletes every task matching the filter (at least one condition) in a background job ,
+         * follow it with GET /tasks/jobs/{jobId}.
+         */
+        return accepted(taskJobService.submitDelete(filter));
+    }
+
+
+
+    @PatchMapping
+    @Validated(UpdateValidationGroup.class)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskJobDto> updateTasksWhere(
+        @ParameterObject TaskFilter filter,
+        @Parameter(
+            description = "Fields to set on every matching task , the null ones are left unchanged (name can not be set)",
+            required = true
+        )
+        @Valid @RequestBody TaskRequestDto request
+    ) {
+
+        /**
+         * Updates every task matching the filter (at least one condition) in a background job.
+         */
+        return accepted(taskJobService.submitUpdate(filter, request));
+    }
+
+
+
+    @GetMapping("/archived")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<PageDTO<TaskResponseDto>> getArchivedTasks(
+        @RequestParam int page,
+        @RequestParam int pageSize
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Paginated list of the archived tasks (DONE tasks moved out of the current ones) , by id.
+             */
+            taskArchiveService.pageArchived(page, pageSize)
+        );
+    }
+
+
+
+    @GetMapping("/archive-policy")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskArchivePolicyDto> getArchivePolicy() {
+
+        return ResponseEntity.ok(
+            /**
+             * Age after which the tenant's DONE tasks are archived , the default when it has none of its own.
+             */
+            taskArchiveService.policy()
+        );
+    }
+
+
+
+    @PutMapping("/archive-policy")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskArchivePolicyDto> saveArchivePolicy(
+        @Valid @RequestBody TaskArchivePolicyDto policy
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Sets the tenant's archive age , 0 keeps all its tasks in the current table.
+             */
+            taskArchiveService.savePolicy(policy)
+        );
+    }
+
+
+
+    @GetMapping("/jobs")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<TaskJobDto>> getTaskJobs() {
+
+        return ResponseEntity.ok(
+            /**
+             * The filter based jobs of the tenant , running ones and those finished within the retention , newest first.
+             */
+            taskJobService.list()
+        );
+    }
+
+
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskJobDto> getTaskJob(
+        @PathVariable UUID jobId
+    ) {
+
+        return ResponseEntity.of(taskJobService.find(jobId));
+    }
+
+
+
+    @DeleteMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<TaskJobDto> cancelTaskJob(
+        @PathVariable UUID jobId
+    ) {
+
+        /**
+         * Stops the job after its current chunk , the committed chunks are not undone.
+         */
+        return ResponseEntity.of(taskJobService.cancel(jobId));
+    }
+
+
+
     @DeleteMapping("/{ids}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")   
     public ResponseEntity<OperationResult> deleteTasks(
@@ -112,14 +496,25 @@ public class TaskController {
             example = "1,2,3",
             schema = @Schema(type = "string")
         )
-        @PathVariable List<Long> ids
+        @PathVariable List<Long> ids,
+        @Parameter(
+            description = "Also look up the ids not found among the current tasks in the archive"
+        )
+        @RequestParam(defaultValue = "false") boolean includeArchived,
+        WebRequest webRequest
     ) {
 
-        return ResponseEntity.ok(
+        String eTag = taskArchiveService.findETag(ids, includeArchived);
+
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(
             /**
-             * Retrieves the tasks with the specified IDs.
+             * Retrieves the tasks with the specified IDs , archived ones included on demand.
              */
-            taskService.findEntities(ids)
+            taskArchiveService.findEntities(ids, includeArchived)
         );
     }
     
@@ -151,4 +546,73 @@ public class TaskController {
             taskService.updateEntities(ids, request)
         );
     }
+
+
+
+    @PatchMapping("/items")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<PatchResult> patchTasks(
+        @RequestBody @Valid List<TaskPatchDto> patches
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Updates each task with its own values (id + the fields to change , null fields are left as they are ,
+             * name can not be patched) ,
+             * returns the outcome (UPDATED , UNCHANGED , NOT_FOUND , DUPLICATE) of each element.
+             */
+            taskService.patchEntities(patches)
+        );
+    }
+
+
+
+    @PutMapping("/chunked/{ids}")
+    @Validated(UpdateValidationGroup.class)
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ChunkedWriteResult> updateTasksInChunks(
+        @Parameter(
+            description = "Comma-separated list of Tasks IDs to be updated",
+            required = true,
+            example = "1,2,3",
+            schema = @Schema(type = "string")
+        )
+        @PathVariable List<Long> ids,
+        @Parameter(
+            description = "Tasks committed per transaction , defaults to tasks.chunked.chunk-size"
+        )
+        @RequestParam(required = false) Integer chunkSize,
+        @Valid @RequestBody TaskRequestDto request
+    ) {
+
+        return ResponseEntity.ok(
+            /**
+             * Same as PUT /tasks/{ids} , committed chunk by chunk.
+             */
+            taskChunkedWriteService.updateInChunks(ids, request, chunkSize)
+        );
+    }
+
+
+
+    private static ResponseEntity<TaskJobDto> accepted(TaskJobDto job) {
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/tasks/jobs/" + job.getId()))
+                .body(job);
+    }
+
+
+
+    /***
+     *
+     * 304 for a matching If-None-Match , the tasks are neither loaded nor serialized
+     */
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
 }
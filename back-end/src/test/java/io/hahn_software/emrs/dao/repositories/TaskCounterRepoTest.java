@@ -0,0 +1,141 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.hahn_software.emrs.cache.TaskStatsCache;
+import io.hahn_software.emrs.enums.CounterDimension;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import io.hahn_software.emrs.utils.TaskCounterDeltas;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class TaskCounterRepoTest {
+
+
+    private static final UUID TENANT = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+
+    private EntityManager em ;
+
+    private Query query ;
+
+    private TaskStatsCache taskStatsCache ;
+
+    private TaskCounterRepo taskCounterRepo ;
+
+
+
+    @BeforeEach
+    void setUp() {
+
+        em = mock(EntityManager.class);
+        query = mock(Query.class);
+        taskStatsCache = mock(TaskStatsCache.class);
+
+        CurrentTenantIdentifierResolverImpl tenantResolver = mock(CurrentTenantIdentifierResolverImpl.class);
+        when(tenantResolver.resolveCurrentTenantIdentifier()).thenReturn(TENANT);
+
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+
+        taskCounterRepo = new TaskCounterRepo(tenantResolver, taskStatsCache);
+        ReflectionTestUtils.setField(taskCounterRepo, "em", em);
+    }
+
+
+
+    @Test
+    void appliesAllDeltasInOneUpsert() {
+
+        taskCounterRepo.applyDeltas(
+            new TaskCounterDeltas()
+                .add(CounterDimension.PRIORITY, TaskPriority.HIGH, 1)
+                .add(CounterDimension.STATUS, TaskStatus.OPEN, 1)
+        );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(em).createNativeQuery(sql.capture());
+
+        assertThat(sql.getValue()).isEqualTo(
+            "INSERT INTO task_counters (tenant_id, dimension, bucket, task_count) VALUES "
+            + "(:tenantId, :dimension0, :bucket0, :delta0), (:tenantId, :dimension1, :bucket1, :delta1)"
+            + " ON CONFLICT (tenant_id, dimension, bucket)"
+            + " DO UPDATE SET task_count = task_counters.task_count + EXCLUDED.task_count"
+        );
+
+        verify(query).setParameter("tenantId", TENANT);
+        verify(query).executeUpdate();
+    }
+
+
+    @Test
+    void bindsRowsInSortedKeyOrder() {
+
+        taskCounterRepo.applyDeltas(
+            new TaskCounterDeltas()
+                .add(CounterDimension.PRIORITY, TaskPriority.LOW, -1)
+                .add(CounterDimension.STATUS, TaskStatus.OPEN, -1)
+                .add(CounterDimension.STATUS, TaskStatus.DONE, 1)
+        );
+
+        InOrder order = inOrder(query);
+
+        order.verify(query).setParameter("dimension0", "STATUS");
+        order.verify(query).setParameter("bucket0", "DONE");
+        order.verify(query).setParameter("delta0", 1L);
+
+        order.verify(query).setParameter("dimension1", "STATUS");
+        order.verify(query).setParameter("bucket1", "OPEN");
+        order.verify(query).setParameter("delta1", -1L);
+
+        order.verify(query).setParameter("dimension2", "PRIORITY");
+        order.verify(query).setParameter("bucket2", "LOW");
+        order.verify(query).setParameter("delta2", -1L);
+
+        order.verify(query).executeUpdate();
+    }
+
+
+    @Test
+    void evictsTheStatsOfTheTenantAfterCompletion() {
+
+        taskCounterRepo.applyDeltas(new TaskCounterDeltas().add(CounterDimension.STATUS, TaskStatus.DONE, 1));
+
+        InOrder order = inOrder(query, taskStatsCache);
+
+        order.verify(query).executeUpdate();
+        order.verify(taskStatsCache).evictAfterCompletion(TENANT);
+    }
+
+
+    @Test
+    void emptyDeltasDoNotTouchTheDatabase() {
+
+        taskCounterRepo.applyDeltas(null);
+        taskCounterRepo.applyDeltas(new TaskCounterDeltas());
+        taskCounterRepo.applyDeltas(
+            new TaskCounterDeltas()
+                .add(CounterDimension.STATUS, TaskStatus.OPEN, 1)
+                .add(CounterDimension.STATUS, TaskStatus.OPEN, -1)
+        );
+
+        verifyNoInteractions(em, taskStatsCache);
+    }
+}
@@ -0,0 +1,283 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import io.hahn_software.emrs.dtos.TaskFilter;
+import io.hahn_software.emrs.enums.SortDirection;
+import io.hahn_software.emrs.enums.TaskFilterField;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskSort;
+import io.hahn_software.emrs.enums.TaskStatus;
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+
+
+
+/***
+ *
+ * EXPLAIN of the filtered listing for every filter / sort combination TaskSort accepts , on the schema built by
+ * the changelog : the page must come from an index , in order when there is no estimate date range
+ * (a range on another column than the sort key may be served from the estimate date index and sorted).
+ * Sorted by estimate date , the range must be a bound of the index scan , not a filter of the scanned rows.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TaskFilterIndexesTest {
+
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16.2");
+
+
+    private static final UUID TENANT = UUID.fromString("00000000-0000-0000-0000-000000000007");
+
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private static final Map<TaskSort, String> SORT_COLUMNS = Map.of(
+        TaskSort.ID, "id",
+        TaskSort.ESTIMATE_DATE, "estimate_date",
+        TaskSort.UPDATED_AT, "updated_at"
+    );
+
+    private static final Pattern SORT_NODE = Pattern.compile("^\\s*(->\\s+)?Sort\\b");
+
+    // 200k tasks over 20 tenants , 4 statuses , 4 priorities , 50 assignees and estimate dates spread over 5000 hours ,
+    // the values of the different columns are independent
+    private static final String SEED_SQL = """
+        INSERT INTO tasks (tenant_id, name, status, priority, description, estimate_date, assign_to_user_id, user_name, created_at, updated_at)
+        SELECT CAST('00000000-0000-0000-0000-0000000000' || lpad(CAST(g % 20 AS text), 2, '0') AS uuid),
+               'task-' || g,
+               (ARRAY['OPEN', 'IN_PROGRESS', 'DONE', 'BLOCKED'])[1 + (g / 20) % 4],
+               (ARRAY['LOW', 'MEDIUM', 'HIGH', 'CRITICAL'])[1 + (g / 80) % 4],
+               'description ' || g,
+               now() + make_interval(hours => (g * 7919) % 5000),
+               CAST(md5(CAST((g / 320) % 50 AS text)) AS uuid),
+               'user',
+               now(),
+               now() - make_interval(secs => g)
+        FROM generate_series(1, 200000) g
+        """;
+
+
+
+    @BeforeAll
+    static void migrateAndSeed() throws Exception {
+
+        try (Connection connection = connect()) {
+
+            Database database = DatabaseFactory.getInstance()
+                                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+
+            // the whole migration , partition swap included : the plans are checked on the final layout
+            new Liquibase("db/changelog/db.changelog-master.yaml", new ClassLoaderResourceAccessor(), database)
+                .update(new Contexts("default", "partition-migration"), new LabelExpression());
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(SEED_SQL);
+                statement.execute("ANALYZE tasks");
+            }
+        }
+    }
+
+
+
+    @Test
+    void everyAcceptedCombinationIsServedByAnIndex() throws SQLException {
+
+        SoftAssertions softly = new SoftAssertions();
+
+        try (Connection connection = connect()) {
+
+            for (Set<TaskFilterField> fields : equalityCombinations()) {
+                for (boolean range : new boolean[] { false, true }) {
+
+                    TaskFilter filter = filter(connection, fields, range);
+
+                    for (TaskSort sort : TaskSort.values()) {
+
+                        if (!sort.isIndexedFor(filter)) {
+                            continue;
+                        }
+
+                        for (SortDirection direction : SortDirection.values()) {
+
+                            String combination = fields + (range ? " + estimate range" : "") + " sorted by " + sort + " " + direction;
+                            List<String> plan = explain(connection, filter, sort, direction);
+
+                            softly.assertThat(plan).as(combination + "\n" + String.join("\n", plan))
+                                .noneMatch(line -> line.contains("Seq Scan"))
+                                .anyMatch(line -> line.contains("Index"));
+
+                            if (!range) {
+                                softly.assertThat(plan).as(combination + " is read in index order\n" + String.join("\n", plan))
+                                    .noneMatch(line -> SORT_NODE.matcher(line).find());
+                            }
+
+                            if (range && sort == TaskSort.ESTIMATE_DATE) {
+                                softly.assertThat(plan).as(combination + " scans the range , not a filter\n" + String.join("\n", plan))
+                                    .anyMatch(line -> line.contains("Index Cond") && line.contains("estimate_date"))
+                                    .noneMatch(line -> line.contains("Filter") && line.contains("estimate_date"))
+                                    .noneMatch(line -> SORT_NODE.matcher(line).find());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        softly.assertAll();
+    }
+
+
+
+    /** Same shape as the Criteria query of TaskRepo.findWithFilter (a later page , ties broken by id) */
+    private static List<String> explain(Connection connection, TaskFilter filter, TaskSort sort, SortDirection direction)
+        throws SQLException {
+
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT * FROM tasks t WHERE t.tenant_id = ?");
+        List<Object> parameters = new ArrayList<>(List.of(TENANT));
+
+        if (filter.getStatus() != null) {
+            sql.append(" AND t.status = ?");
+            parameters.add(filter.getStatus().name());
+        }
+
+        if (filter.getPriority() != null) {
+            sql.append(" AND t.priority = ?");
+            parameters.add(filter.getPriority().name());
+        }
+
+        if (filter.getAssignToUserId() != null) {
+            sql.append(" AND t.assign_to_user_id = ?");
+            parameters.add(filter.getAssignToUserId());
+        }
+
+        if (filter.getEstimateFrom() != null) {
+            sql.append(" AND t.estimate_date >= ? AND t.estimate_date < ?");
+            parameters.add(Timestamp.from(Instant.ofEpochMilli(filter.getEstimateFrom())));
+            parameters.add(Timestamp.from(Instant.ofEpochMilli(filter.getEstimateTo())));
+        }
+
+        sql.append(" ORDER BY t.").append(SORT_COLUMNS.get(sort)).append(' ').append(direction);
+
+        if (sort != TaskSort.ID) {
+            sql.append(", t.id ").append(direction);
+        }
+
+        sql.append(" OFFSET 40 LIMIT 20");
+
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+
+            List<String> plan = new ArrayList<>();
+
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.add(rows.getString(1));
+                }
+            }
+
+            return plan;
+        }
+    }
+
+
+
+    private static TaskFilter filter(Connection connection, Set<TaskFilterField> fields, boolean range) throws SQLException {
+
+        TaskFilter filter = new TaskFilter();
+
+        if (fields.contains(TaskFilterField.STATUS)) {
+            filter.setStatus(TaskStatus.OPEN);
+        }
+
+        if (fields.contains(TaskFilterField.PRIORITY)) {
+            filter.setPriority(TaskPriority.HIGH);
+        }
+
+        if (fields.contains(TaskFilterField.ASSIGNEE)) {
+            filter.setAssignToUserId(anAssignee(connection));
+        }
+
+        if (range) {
+            filter.setEstimateFrom(NOW.plus(1000, ChronoUnit.HOURS).toEpochMilli());
+            filter.setEstimateTo(NOW.plus(1500, ChronoUnit.HOURS).toEpochMilli());
+        }
+
+        return filter;
+    }
+
+
+
+    private static UUID anAssignee(Connection connection) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT t.assign_to_user_id FROM tasks t WHERE t.tenant_id = ? LIMIT 1")) {
+
+            statement.setObject(1, TENANT);
+
+            try (ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getObject(1, UUID.class);
+            }
+        }
+    }
+
+
+
+    private static List<Set<TaskFilterField>> equalityCombinations() {
+
+        TaskFilterField[] fields = TaskFilterField.values();
+        List<Set<TaskFilterField>> combinations = new ArrayList<>();
+
+        for (int mask = 0; mask < 1 << fields.length; mask++) {
+
+            Set<TaskFilterField> combination = EnumSet.noneOf(TaskFilterField.class);
+
+            for (int i = 0; i < fields.length; i++) {
+                if ((mask & 1 << i) != 0) {
+                    combination.add(fields[i]);
+                }
+            }
+
+            combinations.add(combination);
+        }
+
+        return combinations;
+    }
+
+
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,94 @@
+package io.hahn_software.emrs.dao.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.hahn_software.emrs.enums.TaskChangeType;
+import io.hahn_software.emrs.events.TaskChangedEvent;
+import io.hahn_software.emrs.utils.CurrentTenantIdentifierResolverImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+class TaskVersionRepoTest {
+
+
+    private static final UUID TENANT = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+    private static final UUID OTHER_TENANT = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+
+    private EntityManager em ;
+
+    private Query query ;
+
+    private TaskVersionRepo taskVersionRepo ;
+
+
+
+    @BeforeEach
+    void setUp() {
+
+        em = mock(EntityManager.class);
+        query = mock(Query.class);
+
+        CurrentTenantIdentifierResolverImpl tenantResolver = mock(CurrentTenantIdentifierResolverImpl.class);
+        when(tenantResolver.resolveCurrentTenantIdentifier()).thenReturn(TENANT);
+
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+
+        taskVersionRepo = new TaskVersionRepo(tenantResolver);
+        ReflectionTestUtils.setField(taskVersionRepo, "em", em);
+    }
+
+
+
+    @Test
+    void everyChangeBumpsTheTenantOfTheEvent() {
+
+        taskVersionRepo.onTaskChanged(new TaskChangedEvent(OTHER_TENANT, TaskChangeType.UPDATED, List.of(1L, 2L)));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(em).createNativeQuery(sql.capture());
+
+        assertThat(sql.getValue()).isEqualTo(
+            "INSERT INTO task_versions (tenant_id, version) VALUES (:tenantId, 1)"
+            + " ON CONFLICT (tenant_id) DO UPDATE SET version = task_versions.version + 1"
+        );
+
+        verify(query).setParameter("tenantId", OTHER_TENANT);
+        verify(query).executeUpdate();
+    }
+
+
+    @Test
+    void changesWithoutTasksDoNotTouchTheDatabase() {
+
+        taskVersionRepo.onTaskChanged(new TaskChangedEvent(TENANT, TaskChangeType.UPDATED, List.of()));
+
+        verifyNoInteractions(em);
+    }
+
+
+    @Test
+    void readsTheVersionOfTheCurrentTenant() {
+
+        when(query.getSingleResult()).thenReturn(42L);
+
+        assertThat(taskVersionRepo.version()).isEqualTo(42L);
+        verify(query).setParameter("tenantId", TENANT);
+    }
+}
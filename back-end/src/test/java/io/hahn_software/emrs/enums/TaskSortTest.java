@@ -0,0 +1,82 @@
+package io.hahn_software.emrs.enums;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.hahn_software.emrs.dtos.TaskFilter;
+
+class TaskSortTest {
+
+
+    private static final UUID ASSIGNEE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+
+
+    @Test
+    void everySortIsIndexedWithoutEqualityFilter() {
+
+        TaskFilter range = TaskFilter.builder().estimateFrom(0L).estimateTo(1L).build();
+
+        for (TaskSort sort : TaskSort.values()) {
+            assertThat(sort.isIndexedFor(new TaskFilter())).as(sort.name()).isTrue();
+            assertThat(sort.isIndexedFor(range)).as(sort.name()).isTrue();
+        }
+    }
+
+
+    @Test
+    void singleFilters() {
+
+        TaskFilter status = TaskFilter.builder().status(TaskStatus.OPEN).build();
+        TaskFilter priority = TaskFilter.builder().priority(TaskPriority.HIGH).build();
+        TaskFilter assignee = TaskFilter.builder().assignToUserId(ASSIGNEE).build();
+
+        assertThat(TaskSort.ID.isIndexedFor(status)).isTrue();
+        assertThat(TaskSort.ESTIMATE_DATE.isIndexedFor(status)).isTrue();
+        assertThat(TaskSort.UPDATED_AT.isIndexedFor(status)).isTrue();
+
+        assertThat(TaskSort.ID.isIndexedFor(priority)).isTrue();
+        assertThat(TaskSort.ESTIMATE_DATE.isIndexedFor(priority)).isTrue();
+        assertThat(TaskSort.UPDATED_AT.isIndexedFor(priority)).isFalse();
+
+        assertThat(TaskSort.ID.isIndexedFor(assignee)).isTrue();
+        assertThat(TaskSort.ESTIMATE_DATE.isIndexedFor(assignee)).isFalse();
+        assertThat(TaskSort.UPDATED_AT.isIndexedFor(assignee)).isFalse();
+    }
+
+
+    @Test
+    void pairsAreOnlySortedById() {
+
+        TaskFilter statusPriority = TaskFilter.builder().status(TaskStatus.OPEN).priority(TaskPriority.HIGH).build();
+        TaskFilter assigneeStatus = TaskFilter.builder().assignToUserId(ASSIGNEE).status(TaskStatus.OPEN).build();
+        TaskFilter assigneePriority = TaskFilter.builder().assignToUserId(ASSIGNEE).priority(TaskPriority.HIGH).build();
+
+        for (TaskFilter filter : new TaskFilter[] { statusPriority, assigneeStatus, assigneePriority }) {
+            assertThat(TaskSort.ID.isIndexedFor(filter)).isTrue();
+            assertThat(TaskSort.ESTIMATE_DATE.isIndexedFor(filter)).isFalse();
+            assertThat(TaskSort.UPDATED_AT.isIndexedFor(filter)).isFalse();
+        }
+    }
+
+
+    @Test
+    void allThreeFiltersAreSortedByIdOrEstimateDate() {
+
+        // "my HIGH priority OPEN tasks due this week"
+        TaskFilter all = TaskFilter.builder()
+                            .status(TaskStatus.OPEN)
+                            .priority(TaskPriority.HIGH)
+                            .assignToUserId(ASSIGNEE)
+                            .estimateFrom(0L)
+                            .estimateTo(1L)
+                            .build();
+
+        assertThat(TaskSort.ID.isIndexedFor(all)).isTrue();
+        assertThat(TaskSort.ESTIMATE_DATE.isIndexedFor(all)).isTrue();
+        assertThat(TaskSort.UPDATED_AT.isIndexedFor(all)).isFalse();
+    }
+}
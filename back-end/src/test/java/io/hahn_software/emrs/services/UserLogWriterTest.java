@@ -0,0 +1,167 @@
+package io.hahn_software.emrs.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.hahn_software.emrs.dao.repositories.UserLogRepo;
+import io.hahn_software.emrs.entities.UserLog;
+import io.hahn_software.emrs.enums.AuditOverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+
+/***
+ *
+ * Overflow policies of the audit pipeline , with a queue of one row kept full : the writer thread is only started
+ * when a test needs the queue to drain
+ */
+class UserLogWriterTest {
+
+
+    private UserLogRepo userLogRepo ;
+
+    private SimpleMeterRegistry meterRegistry ;
+
+    private List<String> written ;
+
+    private List<String> writingThreads ;
+
+
+
+    @BeforeEach
+    void setUp() {
+
+        userLogRepo = mock(UserLogRepo.class);
+        meterRegistry = new SimpleMeterRegistry();
+        written = new CopyOnWriteArrayList<>();
+        writingThreads = new CopyOnWriteArrayList<>();
+
+        // the writer reuses its batch list , keep what each call wrote
+        doAnswer(invocation -> {
+            List<UserLog> batch = invocation.getArgument(0);
+            batch.forEach(userLog -> written.add(userLog.getOperation()));
+            return writingThreads.add(Thread.currentThread().getName());
+        }).when(userLogRepo).insertInBatch(anyList());
+    }
+
+
+
+    @Test
+    void dropNewestKeepsTheQueuedRow() throws InterruptedException {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.DROP_NEWEST, 1);
+
+        writer.publish(log("first"));
+        writer.publishWithoutBlocking(log("second"));
+
+        assertThat(dropped()).isEqualTo(1);
+
+        writer.shutdown();
+        verify(userLogRepo).insertInBatch(List.of(log("first")));
+    }
+
+
+    @Test
+    void dropOldestKeepsTheNewRow() throws InterruptedException {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.DROP_OLDEST, 1);
+
+        writer.publish(log("first"));
+        writer.publishWithoutBlocking(log("second"));
+
+        assertThat(dropped()).isEqualTo(1);
+
+        writer.shutdown();
+        verify(userLogRepo).insertInBatch(List.of(log("second")));
+    }
+
+
+    @Test
+    void callerRunsWritesOnThePublishingThread() {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.CALLER_RUNS, 1);
+
+        writer.publish(log("first"));
+        writer.publish(log("second"));
+
+        verify(userLogRepo).insertInBatch(List.of(log("second")));
+        assertThat(writingThreads).containsExactly(Thread.currentThread().getName());
+    }
+
+
+    @Test
+    void callerRunsFromACompletionWritesOnTheOverflowThread() {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.CALLER_RUNS, 1);
+
+        writer.publish(log("first"));
+        writer.publishWithoutBlocking(log("second"));
+
+        verify(userLogRepo, timeout(5000)).insertInBatch(List.of(log("second")));
+        assertThat(writingThreads).containsExactly("user-log-overflow");
+    }
+
+
+    @Test
+    void blockFromACompletionDoesNotWaitAndLosesNothing() throws InterruptedException {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.BLOCK, 1);
+
+        writer.publish(log("first"));
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> writer.publishWithoutBlocking(log("second")));
+
+        verify(userLogRepo, never()).insertInBatch(anyList());
+
+        writer.start();
+
+        verify(userLogRepo, timeout(5000).times(2)).insertInBatch(anyList());
+        assertThat(written).containsExactly("first", "second");
+        assertThat(dropped()).isZero();
+
+        writer.shutdown();
+    }
+
+
+    @Test
+    void saturatedOverflowDropsTheRow() {
+
+        UserLogWriter writer = writer(AuditOverflowPolicy.BLOCK, 1);
+
+        writer.publish(log("first"));
+
+        // the overflow thread waits on the queue with the second row , the third one waits for the overflow thread
+        writer.publishWithoutBlocking(log("second"));
+        writer.publishWithoutBlocking(log("third"));
+        writer.publishWithoutBlocking(log("fourth"));
+
+        assertThat(dropped()).isEqualTo(1);
+        verify(userLogRepo, never()).insertInBatch(anyList());
+    }
+
+
+
+    private UserLogWriter writer(AuditOverflowPolicy overflowPolicy, int overflowCapacity) {
+        return new UserLogWriter(userLogRepo, meterRegistry, 1, 200, 50, 200, overflowPolicy, overflowCapacity);
+    }
+
+    private double dropped() {
+        return meterRegistry.counter("audit.log.rows", "result", "dropped").count();
+    }
+
+    private static UserLog log(String operation) {
+        return UserLog.builder().operation(operation).build();
+    }
+}
@@ -0,0 +1,96 @@
+package io.hahn_software.emrs.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.hahn_software.emrs.utils.SqlStatsRegistry.LatencyBuckets;
+
+class LatencyBucketsTest {
+
+
+
+    @Test
+    void belowFourMicrosEveryValueHasItsBucket() {
+
+        for (int micros = 0; micros < 4; micros++) {
+            assertThat(LatencyBuckets.index(micros)).isEqualTo(micros);
+            assertThat(LatencyBuckets.upperBound(micros)).isEqualTo(micros);
+        }
+
+        assertThat(LatencyBuckets.index(-5)).isZero();
+    }
+
+
+    @Test
+    void fourBucketsPerPowerOfTwo() {
+
+        assertThat(LatencyBuckets.index(4)).isEqualTo(4);
+        assertThat(LatencyBuckets.index(7)).isEqualTo(7);
+
+        assertThat(LatencyBuckets.index(8)).isEqualTo(8);
+        assertThat(LatencyBuckets.index(9)).isEqualTo(8);
+        assertThat(LatencyBuckets.index(10)).isEqualTo(9);
+        assertThat(LatencyBuckets.index(15)).isEqualTo(11);
+
+        assertThat(LatencyBuckets.index(1024)).isEqualTo(36);
+        assertThat(LatencyBuckets.index(1279)).isEqualTo(36);
+        assertThat(LatencyBuckets.index(1280)).isEqualTo(37);
+    }
+
+
+    @Test
+    void everyValueFallsBetweenItsBucketBounds() {
+
+        for (long micros = 0; micros < 1 << 16; micros++) {
+
+            int index = LatencyBuckets.index(micros);
+
+            assertThat(micros).isLessThanOrEqualTo(LatencyBuckets.upperBound(index));
+
+            if (index > 0) {
+                assertThat(micros).isGreaterThan(LatencyBuckets.upperBound(index - 1));
+            }
+        }
+    }
+
+
+    @Test
+    void upperBoundIsWithinAQuarterOfTheValue() {
+
+        for (long micros = 4; micros < 1 << 20; micros += 97) {
+            assertThat(LatencyBuckets.upperBound(LatencyBuckets.index(micros))).isLessThan(micros + micros / 4 + 1);
+        }
+    }
+
+
+    @Test
+    void hugeValuesGoToTheLastBucket() {
+
+        assertThat(LatencyBuckets.index(Long.MAX_VALUE)).isEqualTo(LatencyBuckets.COUNT - 1);
+        assertThat(LatencyBuckets.index(1L << 50)).isEqualTo(LatencyBuckets.COUNT - 1);
+    }
+
+
+    @Test
+    void percentileReturnsTheUpperBoundOfTheRankBucket() {
+
+        long[] buckets = new long[LatencyBuckets.COUNT];
+
+        // 90 executions at 100 µs , 10 at 10 ms
+        buckets[LatencyBuckets.index(100)] = 90;
+        buckets[LatencyBuckets.index(10_000)] = 10;
+
+        assertThat(LatencyBuckets.percentileMicros(buckets, 0.50)).isEqualTo(LatencyBuckets.upperBound(LatencyBuckets.index(100)));
+        assertThat(LatencyBuckets.percentileMicros(buckets, 0.90)).isEqualTo(LatencyBuckets.upperBound(LatencyBuckets.index(100)));
+        assertThat(LatencyBuckets.percentileMicros(buckets, 0.91)).isEqualTo(LatencyBuckets.upperBound(LatencyBuckets.index(10_000)));
+        assertThat(LatencyBuckets.percentileMicros(buckets, 0.99)).isBetween(10_000L, 12_500L);
+    }
+
+
+    @Test
+    void percentileOfNoExecutionIsZero() {
+
+        assertThat(LatencyBuckets.percentileMicros(new long[LatencyBuckets.COUNT], 0.99)).isZero();
+    }
+}
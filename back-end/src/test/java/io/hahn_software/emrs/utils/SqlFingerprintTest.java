@@ -0,0 +1,91 @@
+package io.hahn_software.emrs.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SqlFingerprintTest {
+
+
+
+    @Test
+    void replacesStringAndNumericLiterals() {
+
+        assertThat(SqlFingerprint.of("SELECT * FROM tasks WHERE name = 'it''s done' AND id = 42 AND score > 1.5"))
+            .isEqualTo("SELECT * FROM tasks WHERE name = ? AND id = ? AND score > ?");
+    }
+
+
+    @Test
+    void keepsDigitsOfIdentifiers() {
+
+        assertThat(SqlFingerprint.of("SELECT t1.id FROM tasks_p01 t1 WHERE t1.v2 = 7"))
+            .isEqualTo("SELECT t1.id FROM tasks_p01 t1 WHERE t1.v2 = ?");
+    }
+
+
+    @Test
+    void collapsesInListsWhateverTheirSize() {
+
+        String two = SqlFingerprint.of("SELECT * FROM tasks WHERE id IN (?, ?)");
+        String many = SqlFingerprint.of("SELECT * FROM tasks WHERE id IN (1, 2, 3, 4, 5)");
+
+        assertThat(two).isEqualTo("SELECT * FROM tasks WHERE id IN (?...)");
+        assertThat(many).isEqualTo(two);
+    }
+
+
+    @Test
+    void keepsSingleElementInList() {
+
+        assertThat(SqlFingerprint.of("SELECT * FROM tasks WHERE id IN (?)"))
+            .isEqualTo("SELECT * FROM tasks WHERE id IN (?)");
+    }
+
+
+    @Test
+    void collapsesMultiRowValues() {
+
+        String two = SqlFingerprint.of("INSERT INTO t (a, b) VALUES (?, 'x'), (?, 'y')");
+        String three = SqlFingerprint.of("INSERT INTO t (a, b) VALUES (1, ?), (2, ?), (3, ?)");
+
+        assertThat(two).isEqualTo("INSERT INTO t (a, b) VALUES (?...)...");
+        assertThat(three).isEqualTo(two);
+    }
+
+
+    @Test
+    void dropsCommentsAndTheirLiterals() {
+
+        String commented = SqlFingerprint.of(
+            "/* update io.hahn_software.emrs.entities.Task 'secret' */ UPDATE tasks -- tenant 42\n SET status = ? WHERE id = ?"
+        );
+
+        assertThat(commented).isEqualTo("UPDATE tasks SET status = ? WHERE id = ?");
+        assertThat(SqlFingerprint.of("UPDATE tasks SET status = ? WHERE id = ? /* unterminated"))
+            .isEqualTo("UPDATE tasks SET status = ? WHERE id = ?");
+    }
+
+
+    @Test
+    void keepsCommentMarkersInsideLiterals() {
+
+        assertThat(SqlFingerprint.of("SELECT '-- not a comment', '/* nor this */' FROM tasks"))
+            .isEqualTo("SELECT ?, ? FROM tasks");
+    }
+
+
+    @Test
+    void squeezesWhitespace() {
+
+        assertThat(SqlFingerprint.of("  SELECT\n\t id\n  FROM   tasks  "))
+            .isEqualTo("SELECT id FROM tasks");
+    }
+
+
+    @Test
+    void nullIsEmpty() {
+
+        assertThat(SqlFingerprint.of(null)).isEmpty();
+    }
+}
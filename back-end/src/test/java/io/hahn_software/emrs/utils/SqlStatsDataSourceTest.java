@@ -0,0 +1,116 @@
+package io.hahn_software.emrs.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SqlStatsDataSourceTest {
+
+
+    private static final String SQL = "SELECT t.id FROM tasks t WHERE t.tenant_id = ?";
+
+
+    private Connection connection ;
+
+    private PreparedStatement preparedStatement ;
+
+    private Statement statement ;
+
+    private ResultSet resultSet ;
+
+    private SqlStatsRegistry registry ;
+
+    private SqlStatsDataSource dataSource ;
+
+
+
+    @BeforeEach
+    void setUp() throws SQLException {
+
+        DataSource target = mock(DataSource.class);
+        connection = mock(Connection.class);
+        preparedStatement = mock(PreparedStatement.class);
+        statement = mock(Statement.class);
+        resultSet = mock(ResultSet.class);
+
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createStatement()).thenReturn(statement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(preparedStatement.getResultSet()).thenReturn(resultSet);
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(statement.getConnection()).thenReturn(connection);
+        when(resultSet.getStatement()).thenReturn(preparedStatement);
+        when(resultSet.next()).thenReturn(true, true, false);
+
+        registry = new SqlStatsRegistry(100, 100);
+        dataSource = new SqlStatsDataSource(target, registry);
+    }
+
+
+
+    @Test
+    void statementsHandBackTheConnectionProxy() throws SQLException {
+
+        Connection proxy = dataSource.getConnection();
+
+        assertThat(proxy.prepareStatement(SQL).getConnection()).isSameAs(proxy);
+        assertThat(proxy.createStatement().getConnection()).isSameAs(proxy);
+    }
+
+
+    @Test
+    void resultSetsHandBackTheStatementProxy() throws SQLException {
+
+        PreparedStatement proxy = dataSource.getConnection().prepareStatement(SQL);
+
+        assertThat(proxy.executeQuery().getStatement()).isSameAs(proxy);
+        assertThat(proxy.getResultSet().getStatement()).isSameAs(proxy);
+    }
+
+
+    @Test
+    void closingThroughTheBackReferencesReachesTheTargets() throws SQLException {
+
+        ResultSet rows = dataSource.getConnection().prepareStatement(SQL).executeQuery();
+
+        rows.getStatement().getConnection().close();
+        rows.getStatement().close();
+
+        verify(connection).close();
+        verify(preparedStatement).close();
+    }
+
+
+    @Test
+    void recordsTheExecutionAndTheRowsRead() throws SQLException {
+
+        ResultSet rows = dataSource.getConnection().prepareStatement(SQL).executeQuery();
+
+        while (rows.next()) {
+            // read
+        }
+
+        rows.close();
+
+        assertThat(registry.top(10, SqlStatsRegistry.Order.TOTAL))
+            .singleElement()
+            .satisfies(snapshot -> {
+                assertThat(snapshot.count()).isEqualTo(1);
+                assertThat(snapshot.rows()).isEqualTo(2);
+            });
+    }
+}
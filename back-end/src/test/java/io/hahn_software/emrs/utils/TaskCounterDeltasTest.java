@@ -0,0 +1,184 @@
+package io.hahn_software.emrs.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import io.hahn_software.emrs.entities.Task;
+import io.hahn_software.emrs.enums.CounterDimension;
+import io.hahn_software.emrs.enums.TaskPriority;
+import io.hahn_software.emrs.enums.TaskStatus;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CountedFields;
+import io.hahn_software.emrs.utils.TaskCounterDeltas.CounterKey;
+
+class TaskCounterDeltasTest {
+
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+
+
+    @Test
+    void createsAreAggregatedPerBucket() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .taskAdded(task(TaskStatus.OPEN, TaskPriority.HIGH, ALICE))
+            .taskAdded(task(TaskStatus.OPEN, TaskPriority.LOW, ALICE))
+            .taskAdded(task(TaskStatus.DONE, TaskPriority.HIGH, null))
+            .asMap();
+
+        assertThat(deltas).containsOnly(
+            Map.entry(key(CounterDimension.STATUS, "OPEN"), 2L),
+            Map.entry(key(CounterDimension.STATUS, "DONE"), 1L),
+            Map.entry(key(CounterDimension.PRIORITY, "HIGH"), 2L),
+            Map.entry(key(CounterDimension.PRIORITY, "LOW"), 1L),
+            Map.entry(key(CounterDimension.ASSIGNEE, ALICE.toString()), 2L)
+        );
+    }
+
+
+    @Test
+    void deletesDecrementEveryDimension() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .taskRemoved(new CountedFields(TaskStatus.BLOCKED, TaskPriority.CRITICAL, BOB))
+            .taskRemoved(new CountedFields(TaskStatus.BLOCKED, TaskPriority.MEDIUM, null))
+            .asMap();
+
+        assertThat(deltas).containsOnly(
+            Map.entry(key(CounterDimension.STATUS, "BLOCKED"), -2L),
+            Map.entry(key(CounterDimension.PRIORITY, "CRITICAL"), -1L),
+            Map.entry(key(CounterDimension.PRIORITY, "MEDIUM"), -1L),
+            Map.entry(key(CounterDimension.ASSIGNEE, BOB.toString()), -1L)
+        );
+    }
+
+
+    @Test
+    void createThenDeleteCancelsOut() {
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas()
+            .taskAdded(task(TaskStatus.OPEN, TaskPriority.LOW, ALICE))
+            .taskRemoved(new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, ALICE));
+
+        assertThat(deltas.isEmpty()).isTrue();
+        assertThat(deltas.asMap()).isEmpty();
+    }
+
+
+    @Test
+    void statusChangeMovesOnlyTheStatusBuckets() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .taskChanged(
+                new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, ALICE),
+                Task.builder().status(TaskStatus.DONE).build()
+            )
+            .asMap();
+
+        assertThat(deltas).containsOnly(
+            Map.entry(key(CounterDimension.STATUS, "OPEN"), -1L),
+            Map.entry(key(CounterDimension.STATUS, "DONE"), 1L)
+        );
+    }
+
+
+    @Test
+    void priorityChangeMovesOnlyThePriorityBuckets() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .taskChanged(
+                new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, ALICE),
+                Task.builder().priority(TaskPriority.CRITICAL).build()
+            )
+            .asMap();
+
+        assertThat(deltas).containsOnly(
+            Map.entry(key(CounterDimension.PRIORITY, "LOW"), -1L),
+            Map.entry(key(CounterDimension.PRIORITY, "CRITICAL"), 1L)
+        );
+    }
+
+
+    @Test
+    void assigneeChangeMovesOnlyTheAssigneeBuckets() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .taskChanged(
+                new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, ALICE),
+                Task.builder().assignToUserId(BOB).build()
+            )
+            .taskChanged(
+                new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, null),
+                Task.builder().assignToUserId(BOB).build()
+            )
+            .asMap();
+
+        assertThat(deltas).containsOnly(
+            Map.entry(key(CounterDimension.ASSIGNEE, ALICE.toString()), -1L),
+            Map.entry(key(CounterDimension.ASSIGNEE, BOB.toString()), 2L)
+        );
+    }
+
+
+    @Test
+    void patchWithoutCountedChangeIsIgnored() {
+
+        CountedFields previous = new CountedFields(TaskStatus.OPEN, TaskPriority.LOW, ALICE);
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas()
+            .taskChanged(previous, Task.builder().name("renamed").build())
+            .taskChanged(previous, Task.builder().status(TaskStatus.OPEN).priority(TaskPriority.LOW).build());
+
+        assertThat(deltas.isEmpty()).isTrue();
+        assertThat(TaskCounterDeltas.changesCountedFields(Task.builder().name("renamed").build())).isFalse();
+        assertThat(TaskCounterDeltas.changesCountedFields(Task.builder().assignToUserId(BOB).build())).isTrue();
+    }
+
+
+    @Test
+    void keysAreSortedByDimensionThenBucket() {
+
+        Map<CounterKey, Long> deltas = new TaskCounterDeltas()
+            .add(CounterDimension.ASSIGNEE, BOB, 1)
+            .add(CounterDimension.STATUS, TaskStatus.OPEN, 1)
+            .add(CounterDimension.PRIORITY, TaskPriority.LOW, 1)
+            .add(CounterDimension.ASSIGNEE, ALICE, 1)
+            .add(CounterDimension.STATUS, TaskStatus.DONE, 1)
+            .asMap();
+
+        assertThat(deltas.keySet()).containsExactly(
+            key(CounterDimension.STATUS, "DONE"),
+            key(CounterDimension.STATUS, "OPEN"),
+            key(CounterDimension.PRIORITY, "LOW"),
+            key(CounterDimension.ASSIGNEE, ALICE.toString()),
+            key(CounterDimension.ASSIGNEE, BOB.toString())
+        );
+    }
+
+
+    @Test
+    void zeroDeltasAndNullBucketsAreDropped() {
+
+        TaskCounterDeltas deltas = new TaskCounterDeltas()
+            .add(CounterDimension.STATUS, TaskStatus.OPEN, 0)
+            .add(CounterDimension.ASSIGNEE, null, 1);
+
+        assertThat(deltas.isEmpty()).isTrue();
+    }
+
+
+
+    private static Task task(TaskStatus status, TaskPriority priority, UUID assignee) {
+        return Task.builder().status(status).priority(priority).assignToUserId(assignee).build();
+    }
+
+    private static CounterKey key(CounterDimension dimension, String bucket) {
+        return new CounterKey(dimension, bucket);
+    }
+}